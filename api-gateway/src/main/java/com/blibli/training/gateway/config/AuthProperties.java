@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,5 +15,41 @@ public class AuthProperties {
 
     private List<String> publicPaths = new ArrayList<>();
 
-}
+    private List<RateLimit> rateLimits = new ArrayList<>();
+
+    private Revocation revocation = new Revocation();
+
+    /**
+     * Limits requests whose path starts with {@code path}. Either limit may be left out.
+     * <p>
+     * {@code per-ip} is keyed by the connection's remote address. Behind a load balancer or reverse proxy that
+     * is the proxy's address, so every client shares one bucket. Set {@code server.forward-headers-strategy: native}
+     * there to take the client address from {@code X-Forwarded-For}/{@code Forwarded} instead. Do that only when the
+     * proxy overwrites those headers, or clients can pick their own key.
+     */
+    @Data
+    public static class RateLimit {
+        private String path;
+        private Bucket perIp;
+        // Keyed by the "email" field of the JSON request body
+        private Bucket perEmail;
+    }
 
+    @Data
+    public static class Bucket {
+        private int capacity;
+        private double refillPerSecond;
+    }
+
+    /**
+     * Revoked access tokens are polled from the member service and checked in memory.
+     */
+    @Data
+    public static class Revocation {
+        private boolean enabled = true;
+        private String url = "http://localhost:8081/member/internal/revocations";
+        private Duration pollInterval = Duration.ofSeconds(5);
+        // Re-reads revocations committed late by a slow transaction
+        private Duration overlap = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,40 @@
+package com.blibli.training.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * User tiers for the {@code FairQueue} route filter. A user's tier is the {@code tier} claim of their token;
+ * tokens without one, or naming a tier not listed here, get {@code default-tier}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.fairness")
+public class FairnessProperties {
+
+    private String defaultTier = "standard";
+
+    private Map<String, Tier> tiers = new LinkedHashMap<>();
+
+    public Tier tier(String name) {
+        Tier tier = name != null ? tiers.get(name) : null;
+        return tier != null ? tier : tiers.getOrDefault(defaultTier, new Tier());
+    }
+
+    public String tierName(String name) {
+        return name != null && tiers.containsKey(name) ? name : defaultTier;
+    }
+
+    @Data
+    public static class Tier {
+        // Share of the route's capacity for each user of this tier, relative to other users
+        private int weight = 1;
+        private int maxConcurrentPerUser = 8;
+        // Requests a user may have waiting on top of the ones in flight; beyond this they get 429
+        private int maxQueuedPerUser = 16;
+    }
+}
@@ -0,0 +1,10 @@
+package com.blibli.training.gateway.config;
+
+import com.blibli.training.gateway.loadbalancer.LeastOutstandingLoadBalancerConfig;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LeastOutstandingLoadBalancerConfig.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,23 @@
+package com.blibli.training.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Passive health checking for {@code lb://} routes: an instance that fails this many requests in a row is
+ * left out of load balancing for {@code base-ejection-time}, doubled each time it is ejected again without a
+ * success in between, up to {@code max-ejection-time}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.upstream.outlier-detection")
+public class OutlierDetectionProperties {
+
+    // Connection errors, timeouts and 5xx responses
+    private int consecutiveFailures = 5;
+    private Duration baseEjectionTime = Duration.ofSeconds(30);
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+}
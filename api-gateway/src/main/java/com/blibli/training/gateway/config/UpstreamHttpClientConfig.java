@@ -0,0 +1,49 @@
+package com.blibli.training.gateway.config;
+
+import com.blibli.training.gateway.filter.UpstreamRoutingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryProperties;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+@Configuration
+public class UpstreamHttpClientConfig {
+
+    @Bean
+    public HttpClientFactory gatewayHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                                                      List<HttpClientCustomizer> customizers,
+                                                      HttpClientSslConfigurer sslConfigurer,
+                                                      GatewayProperties gatewayProperties,
+                                                      UpstreamPoolProperties upstreamPoolProperties,
+                                                      SimpleDiscoveryProperties discoveryProperties) {
+        return new UpstreamHttpClientFactory(properties, serverProperties, sslConfigurer, customizers,
+                gatewayProperties, upstreamPoolProperties, discoveryProperties);
+    }
+
+    @Bean
+    public UpstreamRoutingFilter upstreamRoutingFilter(HttpClient httpClient,
+                                                       ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                                       HttpClientProperties properties,
+                                                       UpstreamPoolProperties upstreamPoolProperties) {
+        return new UpstreamRoutingFilter(httpClient, headersFilters, properties, upstreamPoolProperties);
+    }
+
+    /**
+     * Switched off together with the default routing filter, but still needed to write the upstream body.
+     */
+    @Bean
+    public NettyWriteResponseFilter nettyWriteResponseFilter(GatewayProperties gatewayProperties) {
+        return new NettyWriteResponseFilter(gatewayProperties.getStreamingMediaTypes());
+    }
+}
@@ -0,0 +1,96 @@
+package com.blibli.training.gateway.config;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryProperties;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The gateway's HTTP client with a separate connection pool per route in {@code gateway.upstream.routes},
+ * so a slow service cannot take the connections the others need. For {@code lb://} routes every instance in
+ * {@code spring.cloud.discovery.client.simple.instances} gets a pool of that size.
+ */
+public class UpstreamHttpClientFactory extends HttpClientFactory {
+
+    private static final Map<String, Integer> DEFAULT_PORTS = Map.of("http", 80, "https", 443);
+
+    private final GatewayProperties gatewayProperties;
+    private final UpstreamPoolProperties upstreamPoolProperties;
+    private final SimpleDiscoveryProperties discoveryProperties;
+
+    public UpstreamHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                                     HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+                                     GatewayProperties gatewayProperties,
+                                     UpstreamPoolProperties upstreamPoolProperties,
+                                     SimpleDiscoveryProperties discoveryProperties) {
+        super(properties, serverProperties, sslConfigurer, customizers);
+        this.gatewayProperties = gatewayProperties;
+        this.upstreamPoolProperties = upstreamPoolProperties;
+        this.discoveryProperties = discoveryProperties;
+    }
+
+    @Override
+    protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+        ConnectionProvider defaults = super.buildConnectionProvider(properties);
+        // null when pooling is disabled altogether
+        ConnectionProvider.Builder builder = defaults.mutate();
+        if (builder == null || upstreamPoolProperties.getRoutes().isEmpty()) {
+            return defaults;
+        }
+        boolean metrics = properties.getPool().isMetrics();
+        for (RouteDefinition route : gatewayProperties.getRoutes()) {
+            UpstreamPoolProperties.Pool pool = upstreamPoolProperties.getRoutes().get(route.getId());
+            if (pool == null) {
+                continue;
+            }
+            for (InetSocketAddress address : remoteAddresses(route.getUri())) {
+                builder.forRemoteHost(address, spec -> spec
+                        .maxConnections(pool.getMaxConnections())
+                        .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                        .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                        .maxIdleTime(pool.getMaxIdleTime())
+                        .maxLifeTime(pool.getMaxLifeTime())
+                        .evictInBackground(pool.getEvictionInterval())
+                        .metrics(metrics));
+            }
+        }
+        defaults.dispose();
+        return builder.build();
+    }
+
+    private List<InetSocketAddress> remoteAddresses(URI uri) {
+        if (uri != null && "lb".equals(uri.getScheme())) {
+            List<? extends ServiceInstance> instances = discoveryProperties.getInstances()
+                    .getOrDefault(uri.getHost(), List.of());
+            return instances.stream()
+                    .map(instance -> remoteAddress(instance.getUri()))
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+        InetSocketAddress address = remoteAddress(uri);
+        return address != null ? List.of(address) : List.of();
+    }
+
+    /**
+     * The key Reactor Netty looks pools up by: the unresolved host and port of the request.
+     */
+    static InetSocketAddress remoteAddress(URI uri) {
+        if (uri == null || uri.getHost() == null || !DEFAULT_PORTS.containsKey(uri.getScheme())) {
+            return null;
+        }
+        int port = uri.getPort() != -1 ? uri.getPort() : DEFAULT_PORTS.get(uri.getScheme());
+        return InetSocketAddress.createUnresolved(uri.getHost(), port);
+    }
+}
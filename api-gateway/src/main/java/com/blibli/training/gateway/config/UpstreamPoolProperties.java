@@ -0,0 +1,36 @@
+package com.blibli.training.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection pools for gateway → service traffic, keyed by route id. Each route gets its own pool for its
+ * uri's host and port, or one per instance for {@code lb://} routes; traffic to anything else keeps
+ * {@code spring.cloud.gateway.httpclient.pool}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.upstream")
+public class UpstreamPoolProperties {
+
+    private Map<String, Pool> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Pool {
+        private int maxConnections = 200;
+        // Requests waiting for a connection; beyond this they fail at once instead of queueing
+        private int pendingAcquireMaxCount = 400;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        // Below the service's keep-alive timeout, so the gateway closes idle connections first
+        private Duration maxIdleTime = Duration.ofSeconds(15);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictionInterval = Duration.ofSeconds(10);
+        // HTTP/2 with prior knowledge; only for services that accept h2c
+        private boolean h2c = false;
+    }
+}
@@ -0,0 +1,61 @@
+package com.blibli.training.gateway.controller;
+
+import com.blibli.training.framework.dto.BaseResponse;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+/**
+ * Fast-fail answers for the {@code CircuitBreaker} route filters ({@code fallbackUri: forward:/fallback/<route>}),
+ * counted in {@code gateway.fallback} by route and reason so rejections show up next to the breaker state.
+ */
+@RestController
+@RequiredArgsConstructor
+public class FallbackController {
+
+    private final MeterRegistry meterRegistry;
+
+    @RequestMapping("/fallback/{route}")
+    public ResponseEntity<BaseResponse<Void>> fallback(@PathVariable String route, ServerWebExchange exchange) {
+        Throwable cause = exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        String reason;
+        HttpStatus status;
+        String message;
+        if (cause instanceof CallNotPermittedException) {
+            reason = "circuit_open";
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            message = "Service is temporarily unavailable, please try again later";
+        } else if (cause instanceof BulkheadFullException) {
+            reason = "bulkhead";
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            message = "Service is busy, please try again later";
+        } else if (cause instanceof ResponseStatusException e && e.getStatusCode() == HttpStatus.GATEWAY_TIMEOUT) {
+            // The route's response-timeout
+            reason = "timeout";
+            status = HttpStatus.GATEWAY_TIMEOUT;
+            message = "Service did not respond in time";
+        } else {
+            reason = "error";
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            message = "Service is temporarily unavailable, please try again later";
+        }
+        meterRegistry.counter("gateway.fallback", "route", route, "reason", reason).increment();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+            response.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return response.body(BaseResponse.error(status.value(), new RuntimeException(message)));
+    }
+}
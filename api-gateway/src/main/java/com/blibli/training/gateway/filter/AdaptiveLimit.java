@@ -0,0 +1,52 @@
+package com.blibli.training.gateway.filter;
+
+/**
+ * AIMD concurrency limit driven by upstream latency. It grows by one for each request that comes back in
+ * good time while at least half the limit is in use, and shrinks by 10% when a request fails or takes more
+ * than {@code tolerance} times the usual latency. The usual latency is a slow moving average of good
+ * requests, so a sudden slowdown stands out against it.
+ */
+class AdaptiveLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    // Weight of each sample in the usual latency, about the last few hundred requests
+    private static final double SMOOTHING = 0.005;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private double limit;
+    private double usualLatencyNanos;
+    private volatile int current;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.current = (int) limit;
+    }
+
+    int get() {
+        return current;
+    }
+
+    /**
+     * @param inFlight requests in flight when this one started, itself included
+     * @param failed   the upstream failed or timed out; its latency says nothing about load
+     */
+    synchronized void onSample(long latencyNanos, int inFlight, boolean failed) {
+        boolean slow = usualLatencyNanos > 0 && latencyNanos > usualLatencyNanos * tolerance;
+        if (failed || slow) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        if (!failed) {
+            usualLatencyNanos = usualLatencyNanos == 0 ? latencyNanos
+                    : usualLatencyNanos + (latencyNanos - usualLatencyNanos) * SMOOTHING;
+        }
+        current = (int) limit;
+    }
+}
@@ -4,14 +4,15 @@ import com.blibli.training.framework.dto.BaseResponse;
 import com.blibli.training.framework.exception.AuthenticationException;
 import com.blibli.training.framework.security.JwtUtils;
 import com.blibli.training.gateway.config.AuthProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpCookie;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -22,12 +23,25 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 public class AuthenticationFilter implements GlobalFilter, Ordered {
 
+    // Exchange attributes for the filters after this one; absent on public paths
+    public static final String USER_ID_ATTR = AuthenticationFilter.class.getName() + ".userId";
+    public static final String USER_TIER_ATTR = AuthenticationFilter.class.getName() + ".tier";
+
+    // Rejections are the hot path under token spraying, so the body is built once and never mutated
+    private static final byte[] UNAUTHORIZED_BODY = serialize(BaseResponse.error(HttpStatus.UNAUTHORIZED.value(),
+            new AuthenticationException("You don't have access to this page")));
+
     private final JwtUtils jwtUtils;
     private final AuthProperties authProperties;
+    private final RevocationList revocationList;
+
+    private volatile PublicPathMatcher publicPathMatcher;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -41,23 +55,21 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         // for private
 
         String token = extractToken(exchange.getRequest());
-        if (token == null || !jwtUtils.validateToken(token)) {
-            ServerHttpResponse response = exchange.getResponse();
-            response.setStatusCode(HttpStatus.UNAUTHORIZED);
-            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-            
-            try {
-                BaseResponse<String> errorResponse = BaseResponse.error(HttpStatus.UNAUTHORIZED.value(), new AuthenticationException("You don't have access to this page"));
-                byte[] bytes = new ObjectMapper().writeValueAsBytes(errorResponse);
-                DataBuffer buffer = response.bufferFactory().wrap(bytes);
-                return response.writeWith(Mono.just(buffer));
-            } catch (Exception e) {
-                return response.setComplete();
-            }
+        // Verified once; user, tier and token id all come from these claims
+        Claims claims = token == null ? null : jwtUtils.parseClaims(token);
+        if (claims == null || revocationList.isRevoked(claims.getId())) {
+            return unauthorized(exchange);
+        }
+        Object userIdObj = claims.get("userId");
+        if (userIdObj == null) {
+            return unauthorized(exchange);
         }
-
-        Object userIdObj = jwtUtils.getClaimFromToken(token, claims -> claims.get("userId"));
         String userId = String.valueOf(userIdObj);
+        exchange.getAttributes().put(USER_ID_ATTR, userId);
+        String tier = claims.get("tier", String.class);
+        if (tier != null) {
+            exchange.getAttributes().put(USER_TIER_ATTR, tier);
+        }
         ServerHttpRequest request = exchange.getRequest().mutate()
                 .header("X-User-Id", userId)
                 .build();
@@ -65,6 +77,21 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         return chain.filter(exchange.mutate().request(request).build());
     }
 
+    private Mono<Void> unauthorized(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(UNAUTHORIZED_BODY)));
+    }
+
+    private static byte[] serialize(BaseResponse<?> body) {
+        try {
+            return new ObjectMapper().writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private String extractToken(ServerHttpRequest request) {
         // Check Header
         String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
@@ -81,9 +108,15 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         return null;
     }
 
-    private boolean isPublicPath(String path) {
-        return authProperties.getPublicPaths().stream()
-                .anyMatch(publicPath -> path.startsWith(publicPath) || path.equalsIgnoreCase(publicPath));
+    boolean isPublicPath(String path) {
+        List<String> publicPaths = authProperties.getPublicPaths();
+        PublicPathMatcher matcher = publicPathMatcher;
+        // Recompiled only when the property is rebound, e.g. on a config refresh
+        if (matcher == null || !matcher.isCompiledFrom(publicPaths)) {
+            matcher = PublicPathMatcher.compile(publicPaths);
+            publicPathMatcher = matcher;
+        }
+        return matcher.matches(path);
     }
 
     @Override
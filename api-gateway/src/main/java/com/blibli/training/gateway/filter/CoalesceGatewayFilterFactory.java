@@ -0,0 +1,275 @@
+package com.blibli.training.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Route filter collapsing identical in-flight public GETs into one upstream call (single-flight):
+ * <pre>
+ * filters:
+ *   - name: Coalesce
+ *     args:
+ *       max-waiters: 1000
+ *       max-body-size: 1MB
+ * </pre>
+ * Requests for the same URL, {@code Accept} and {@code Accept-Encoding} that arrive while one is upstream wait
+ * for it and get a copy of its response, whatever the status. Past {@code max-waiters} per call, or when the
+ * response is larger than {@code max-body-size} or sets a cookie, the others go upstream on their own.
+ * Conditional and range requests always go upstream on their own, since their answer (304, 206, 412) is
+ * specific to the validators or range they carry.
+ * <p>
+ * Declare it after {@code ResponseCache}, so only cache misses are coalesced. The cache already makes concurrent
+ * misses wait for the first one, but only to read what it stored: when the response turns out not to be
+ * cacheable ({@code no-store}, {@code private}, an error status, too large) or the client asked for
+ * {@code no-cache}, every waiter still goes upstream. This filter shares the response itself, so those cases
+ * are collapsed too. Like the cache it runs before authentication and only handles paths in
+ * {@code gateway.auth.public-paths}.
+ * The coalescing ratio is {@code follower / (leader + follower)} from {@code gateway.coalesce}.
+ */
+@Component
+public class CoalesceGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<CoalesceGatewayFilterFactory.Config> {
+
+    // Per connection, or describing the upstream body rather than the copy sent to a waiter
+    private static final Set<String> NOT_SHARED_HEADERS = Set.of(HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase(), HttpHeaders.CONTENT_LENGTH.toLowerCase());
+
+    // Make the response depend on more than the URL and the negotiated representation
+    private static final List<String> PER_REQUEST_HEADERS = List.of(HttpHeaders.IF_NONE_MATCH,
+            HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.IF_MATCH, HttpHeaders.IF_UNMODIFIED_SINCE,
+            HttpHeaders.IF_RANGE, HttpHeaders.RANGE);
+
+    private final AuthenticationFilter authenticationFilter;
+    private final MeterRegistry meterRegistry;
+
+    public CoalesceGatewayFilterFactory(AuthenticationFilter authenticationFilter, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.authenticationFilter = authenticationFilter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxWaiters", "maxBodySize");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        // Must wrap the response before NettyWriteResponseFilter writes the upstream body to it
+        return new OrderedGatewayFilter(new RouteFlights(routeId, config)::filter,
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        // Requests allowed to wait on one upstream call
+        private int maxWaiters = 1000;
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+    }
+
+    /**
+     * A finished upstream response; a {@link Flight} completes empty instead when it cannot be shared.
+     */
+    private record Shared(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    private static final class Flight {
+        private final Sinks.One<Shared> result = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+
+    private final class RouteFlights {
+
+        private final Config config;
+        private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+        private final Counter leaders;
+        private final Counter followers;
+        private final Counter overflowed;
+        private final Counter unshared;
+        private final Counter bypassed;
+        private final DistributionSummary fanOut;
+
+        private RouteFlights(String routeId, Config config) {
+            this.config = config;
+            this.leaders = counter(routeId, "leader");
+            this.followers = counter(routeId, "follower");
+            this.overflowed = counter(routeId, "overflow");
+            this.unshared = counter(routeId, "unshared");
+            this.bypassed = counter(routeId, "bypass");
+            this.fanOut = DistributionSummary.builder("gateway.coalesce.fanout")
+                    .tag("route", routeId)
+                    .description("Waiters served by one upstream call")
+                    .register(meterRegistry);
+        }
+
+        private Counter counter(String routeId, String result) {
+            return Counter.builder("gateway.coalesce")
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .description("Requests seen by the gateway request coalescing")
+                    .register(meterRegistry);
+        }
+
+        private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!HttpMethod.GET.equals(request.getMethod())
+                    || !authenticationFilter.isPublicPath(request.getURI().getPath())
+                    || PER_REQUEST_HEADERS.stream().anyMatch(request.getHeaders()::containsKey)) {
+                bypassed.increment();
+                return chain.filter(exchange);
+            }
+
+            String key = key(request);
+            Flight flight = new Flight();
+            Flight running = inFlight.putIfAbsent(key, flight);
+            if (running != null) {
+                if (running.waiters.incrementAndGet() > config.getMaxWaiters()) {
+                    running.waiters.decrementAndGet();
+                    overflowed.increment();
+                    return chain.filter(exchange);
+                }
+                followers.increment();
+                // Pick the branch before subscribing to it: writing completes empty as well
+                return running.result.asMono()
+                        .map(shared -> write(exchange.getResponse(), shared))
+                        .defaultIfEmpty(Mono.defer(() -> {
+                            // The leader's response could not be shared
+                            unshared.increment();
+                            return chain.filter(exchange);
+                        }))
+                        .flatMap(response -> response);
+            }
+
+            leaders.increment();
+            SharingResponse response = new SharingResponse(exchange.getResponse(), flight);
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doFinally(signal -> {
+                        inFlight.remove(key, flight);
+                        // Errors and cancellations leave the waiters to go upstream themselves
+                        flight.result.tryEmitEmpty();
+                        fanOut.record(flight.waiters.get());
+                    });
+        }
+
+        /**
+         * Passes the leader's response through while keeping a copy for the waiters, unless it gets too large.
+         */
+        private final class SharingResponse extends ServerHttpResponseDecorator {
+
+            private final Flight flight;
+            // Set by the gateway before the upstream answered, e.g. CORS; every waiter has its own
+            private final Set<String> gatewayHeaders;
+
+            private SharingResponse(ServerHttpResponse delegate, Flight flight) {
+                super(delegate);
+                this.flight = flight;
+                this.gatewayHeaders = new HashSet<>();
+                delegate.getHeaders().keySet().forEach(name -> gatewayHeaders.add(name.toLowerCase()));
+            }
+
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                long maxBodySize = config.getMaxBodySize().toBytes();
+                if (getHeaders().containsKey(HttpHeaders.SET_COOKIE) || getHeaders().getContentLength() > maxBodySize) {
+                    flight.result.tryEmitEmpty();
+                    return super.writeWith(body);
+                }
+                List<DataBuffer> held = new ArrayList<>();
+                long[] heldBytes = {0};
+                boolean[] overflowed = {false};
+                Flux<DataBuffer> passThrough = Flux.<DataBuffer>from(body).concatMap(buffer -> {
+                    if (overflowed[0]) {
+                        return Mono.just(buffer);
+                    }
+                    held.add(buffer);
+                    heldBytes[0] += buffer.readableByteCount();
+                    if (heldBytes[0] <= maxBodySize) {
+                        return Flux.empty();
+                    }
+                    // Too large to keep: stream it and let the waiters go upstream
+                    overflowed[0] = true;
+                    flight.result.tryEmitEmpty();
+                    List<DataBuffer> flushed = new ArrayList<>(held);
+                    held.clear();
+                    return Flux.fromIterable(flushed);
+                }).concatWith(Flux.defer(() -> {
+                    if (overflowed[0]) {
+                        return Flux.empty();
+                    }
+                    byte[] bytes = new byte[(int) heldBytes[0]];
+                    int offset = 0;
+                    for (DataBuffer buffer : held) {
+                        int length = buffer.readableByteCount();
+                        buffer.read(bytes, offset, length);
+                        offset += length;
+                        DataBufferUtils.release(buffer);
+                    }
+                    held.clear();
+                    flight.result.tryEmitValue(new Shared(getStatusCode(), sharedHeaders(getHeaders()), bytes));
+                    return Flux.just(bufferFactory().wrap(bytes));
+                })).doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+                return super.writeWith(passThrough);
+            }
+
+            private HttpHeaders sharedHeaders(HttpHeaders headers) {
+                HttpHeaders shared = new HttpHeaders();
+                headers.forEach((name, values) -> {
+                    String lower = name.toLowerCase();
+                    if (!gatewayHeaders.contains(lower) && !NOT_SHARED_HEADERS.contains(lower)) {
+                        shared.put(name, List.copyOf(values));
+                    }
+                });
+                return HttpHeaders.readOnlyHttpHeaders(shared);
+            }
+        }
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, Shared shared) {
+        response.setStatusCode(shared.status());
+        HttpHeaders headers = response.getHeaders();
+        shared.headers().forEach((name, values) -> headers.put(name, new ArrayList<>(values)));
+        headers.setContentLength(shared.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(shared.body())));
+    }
+
+    private static String key(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return request.getURI().getRawPath() + '?' + request.getURI().getRawQuery()
+                + '\n' + headers.getOrEmpty(HttpHeaders.ACCEPT)
+                + '\n' + headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING);
+    }
+}
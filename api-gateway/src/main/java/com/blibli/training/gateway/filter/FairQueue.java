@@ -0,0 +1,229 @@
+package com.blibli.training.gateway.filter;
+
+import com.blibli.training.gateway.config.FairnessProperties;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission for one route: at most {@link AdaptiveLimit#get()} requests in flight, and each user at most
+ * their tier's {@code max-concurrent-per-user}. Requests over either wait in a queue per user, and free slots
+ * go to the user whose next request has the earliest virtual finish time (weighted fair queueing). Each
+ * queued request moves its user's finish time on by {@code 1 / weight}, so a user with weight 4 gets four
+ * slots for every one a user with weight 1 gets, however many requests either of them sends.
+ */
+final class FairQueue {
+
+    private final AdaptiveLimit limit;
+    private final int maxQueueSize;
+
+    private final Map<String, Flow> flows = new HashMap<>();
+    // Users with requests waiting and room to run one, earliest finish time first
+    private final PriorityQueue<Flow> eligible = new PriorityQueue<>(Comparator.comparingDouble(Flow::headFinish));
+    private double virtualTime;
+    private int inFlight;
+    private int queued;
+    // A granted request may finish on the spot and release again; one thread drains, the rest just ask again
+    private final AtomicInteger dispatching = new AtomicInteger();
+
+    FairQueue(AdaptiveLimit limit, int maxQueueSize) {
+        this.limit = limit;
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    /**
+     * Emits a permit once the request may go upstream, or fails with {@link Rejected} if it may not wait.
+     * Cancelling while queued gives up the place.
+     */
+    Mono<Permit> acquire(String userId, FairnessProperties.Tier tier) {
+        Waiter waiter;
+        synchronized (this) {
+            Flow flow = flows.computeIfAbsent(userId, Flow::new);
+            if (queued == 0 && inFlight < limit.get() && flow.inFlight < tier.getMaxConcurrentPerUser()) {
+                return Mono.just(start(flow));
+            }
+            if (flow.waiters.size() >= tier.getMaxQueuedPerUser()) {
+                removeIfIdle(flow);
+                return Mono.error(new Rejected("user_limit"));
+            }
+            if (queued >= maxQueueSize) {
+                removeIfIdle(flow);
+                return Mono.error(new Rejected("queue_full"));
+            }
+            waiter = new Waiter(flow, tier, Math.max(virtualTime, flow.lastFinish) + 1.0 / tier.getWeight());
+            flow.lastFinish = waiter.finish;
+            flow.waiters.add(waiter);
+            queued++;
+            updateEligibility(flow);
+        }
+        // A slot may have freed up while the queue was empty
+        dispatch();
+        return waiter.sink.asMono().doOnCancel(() -> cancel(waiter));
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    synchronized int queued() {
+        return queued;
+    }
+
+    private void cancel(Waiter waiter) {
+        Permit unused = null;
+        synchronized (this) {
+            if (waiter.permit == null) {
+                eligible.remove(waiter.flow);
+                waiter.flow.waiters.remove(waiter);
+                queued--;
+                updateEligibility(waiter.flow);
+                removeIfIdle(waiter.flow);
+            } else {
+                unused = waiter.permit;
+            }
+        }
+        if (unused != null) {
+            unused.cancel();
+        }
+    }
+
+    private void release(Permit permit) {
+        synchronized (this) {
+            inFlight--;
+            permit.flow.inFlight--;
+            updateEligibility(permit.flow);
+            removeIfIdle(permit.flow);
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        if (dispatching.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            List<Waiter> granted = new ArrayList<>();
+            synchronized (this) {
+                while (inFlight < limit.get() && !eligible.isEmpty()) {
+                    Flow flow = eligible.poll();
+                    Waiter waiter = flow.waiters.poll();
+                    queued--;
+                    virtualTime = waiter.finish;
+                    waiter.permit = start(flow);
+                    updateEligibility(flow);
+                    granted.add(waiter);
+                }
+            }
+            // Outside the lock: subscribers go on to call the upstream from here
+            for (Waiter waiter : granted) {
+                waiter.sink.tryEmitValue(waiter.permit);
+            }
+            missed = dispatching.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private Permit start(Flow flow) {
+        inFlight++;
+        flow.inFlight++;
+        return new Permit(flow, inFlight);
+    }
+
+    private void updateEligibility(Flow flow) {
+        boolean canRun = !flow.waiters.isEmpty() && flow.inFlight < flow.waiters.peek().tier.getMaxConcurrentPerUser();
+        if (canRun && !eligible.contains(flow)) {
+            eligible.add(flow);
+        } else if (!canRun) {
+            eligible.remove(flow);
+        }
+    }
+
+    private void removeIfIdle(Flow flow) {
+        if (flow.inFlight == 0 && flow.waiters.isEmpty()) {
+            flows.remove(flow.userId);
+        }
+    }
+
+    /**
+     * A slot taken by one request; give it back exactly once, whichever way the request ends.
+     */
+    final class Permit {
+
+        private final Flow flow;
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Flow flow, int inFlightAtStart) {
+            this.flow = flow;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        void release(long latencyNanos, boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                limit.onSample(latencyNanos, inFlightAtStart, failed);
+                FairQueue.this.release(this);
+            }
+        }
+
+        /**
+         * The client went away; nothing to learn about the upstream.
+         */
+        void cancel() {
+            if (released.compareAndSet(false, true)) {
+                FairQueue.this.release(this);
+            }
+        }
+    }
+
+    static final class Rejected extends RuntimeException {
+
+        private final String reason;
+
+        Rejected(String reason) {
+            super(reason, null, false, false);
+            this.reason = reason;
+        }
+
+        String reason() {
+            return reason;
+        }
+    }
+
+    private static final class Flow {
+        private final String userId;
+        private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+        private int inFlight;
+        private double lastFinish;
+
+        private Flow(String userId) {
+            this.userId = userId;
+        }
+
+        private double headFinish() {
+            return waiters.peek().finish;
+        }
+    }
+
+    private static final class Waiter {
+        private final Flow flow;
+        private final FairnessProperties.Tier tier;
+        private final double finish;
+        private final Sinks.One<Permit> sink = Sinks.one();
+        private Permit permit;
+
+        private Waiter(Flow flow, FairnessProperties.Tier tier, double finish) {
+            this.flow = flow;
+            this.tier = tier;
+            this.finish = finish;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.blibli.training.gateway.filter;
+
+import com.blibli.training.framework.dto.BaseResponse;
+import com.blibli.training.gateway.config.FairnessProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route filter sharing the route's capacity fairly between signed-in users, see {@link FairQueue}:
+ * <pre>
+ * filters:
+ *   - name: FairQueue
+ *     args:
+ *       initial-limit: 20
+ *       max-limit: 50
+ *       max-queue-time: 1s
+ * </pre>
+ * The route's concurrency limit adapts to upstream latency ({@link AdaptiveLimit}). Requests that cannot
+ * wait, or wait longer than {@code max-queue-time}, get 429 with Retry-After. Public requests carry no user
+ * and pass straight through. Declare it before {@code CircuitBreaker}, so queueing does not count as a slow
+ * call and shed requests never reach the bulkhead.
+ * <p>
+ * Metrics are tagged by route and tier only: {@code gateway.fairness.queue} (time before admission),
+ * {@code gateway.fairness.rejected{reason}}, and the {@code gateway.fairness.limit}, {@code .in-flight}
+ * and {@code .queued} gauges.
+ */
+@Component
+public class FairQueueGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<FairQueueGatewayFilterFactory.Config> {
+
+    private static final byte[] TOO_MANY_REQUESTS_BODY = serialize(BaseResponse.error(
+            HttpStatus.TOO_MANY_REQUESTS.value(), new RuntimeException("Too many requests, please try again later")));
+
+    private final FairnessProperties fairnessProperties;
+    private final MeterRegistry meterRegistry;
+
+    public FairQueueGatewayFilterFactory(FairnessProperties fairnessProperties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.fairnessProperties = fairnessProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("initialLimit", "maxLimit", "maxQueueTime");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new RouteQueue(config.getRouteId() != null ? config.getRouteId() : "unknown", config)::filter;
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        // Keep at or below the route's bulkhead, so this filter sheds first
+        private int maxLimit = 200;
+        // How much slower than usual a request may be before the limit backs off
+        private double latencyTolerance = 2.0;
+        private int maxQueueSize = 500;
+        private Duration maxQueueTime = Duration.ofSeconds(1);
+    }
+
+    private final class RouteQueue {
+
+        private final String routeId;
+        private final Config config;
+        private final FairQueue queue;
+        private final Map<String, Timer> queueTimers = new ConcurrentHashMap<>();
+        private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+        private RouteQueue(String routeId, Config config) {
+            this.routeId = routeId;
+            this.config = config;
+            AdaptiveLimit limit = new AdaptiveLimit(config.getInitialLimit(), config.getMinLimit(),
+                    config.getMaxLimit(), config.getLatencyTolerance());
+            this.queue = new FairQueue(limit, config.getMaxQueueSize());
+            Gauge.builder("gateway.fairness.limit", limit, AdaptiveLimit::get)
+                    .tag("route", routeId)
+                    .description("Current adaptive concurrency limit")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.fairness.in-flight", queue, FairQueue::inFlight)
+                    .tag("route", routeId)
+                    .description("Requests admitted and not yet finished")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.fairness.queued", queue, FairQueue::queued)
+                    .tag("route", routeId)
+                    .description("Requests waiting for admission")
+                    .register(meterRegistry);
+        }
+
+        private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            String userId = exchange.getAttribute(AuthenticationFilter.USER_ID_ATTR);
+            if (userId == null) {
+                return chain.filter(exchange);
+            }
+            String tierClaim = exchange.getAttribute(AuthenticationFilter.USER_TIER_ATTR);
+            String tierName = fairnessProperties.tierName(tierClaim);
+            FairnessProperties.Tier tier = fairnessProperties.tier(tierClaim);
+
+            long queuedAt = System.nanoTime();
+            return queue.acquire(userId, tier)
+                    .timeout(config.getMaxQueueTime(), Mono.error(() -> new FairQueue.Rejected("queue_timeout")))
+                    .flatMap(permit -> {
+                        long startedAt = System.nanoTime();
+                        queueTimer(tierName).record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                        return chain.filter(exchange).doFinally(signal -> {
+                            if (signal == SignalType.CANCEL) {
+                                permit.cancel();
+                                return;
+                            }
+                            HttpStatusCode status = exchange.getResponse().getStatusCode();
+                            boolean failed = signal == SignalType.ON_ERROR
+                                    || (status != null && status.is5xxServerError());
+                            permit.release(System.nanoTime() - startedAt, failed);
+                        });
+                    })
+                    .onErrorResume(FairQueue.Rejected.class, e -> {
+                        rejection(tierName, e.reason()).increment();
+                        return reject(exchange);
+                    });
+        }
+
+        private Timer queueTimer(String tier) {
+            return queueTimers.computeIfAbsent(tier, t -> Timer.builder("gateway.fairness.queue")
+                    .tag("route", routeId)
+                    .tag("tier", t)
+                    .description("Time requests waited for admission")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+
+        private Counter rejection(String tier, String reason) {
+            return rejections.computeIfAbsent(tier + "/" + reason, key -> Counter.builder("gateway.fairness.rejected")
+                    .tag("route", routeId)
+                    .tag("tier", tier)
+                    .tag("reason", reason)
+                    .description("Requests shed with 429 by the fair queue")
+                    .register(meterRegistry));
+        }
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(TOO_MANY_REQUESTS_BODY)));
+    }
+
+    private static byte[] serialize(BaseResponse<?> body) {
+        try {
+            return new ObjectMapper().writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
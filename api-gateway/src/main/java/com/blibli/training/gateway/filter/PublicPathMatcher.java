@@ -0,0 +1,144 @@
+package com.blibli.training.gateway.filter;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Public paths compiled into character tries, so matching a request walks the path once without allocating.
+ * <ul>
+ *     <li>A literal path matches itself and everything below it ({@code /public} matches {@code /public/x}
+ *     but not {@code /publicity}), and also matches itself ignoring case.</li>
+ *     <li>{@code /x/**} matches {@code /x} and everything below it, so it is compiled like a literal.</li>
+ *     <li>Any other pattern ({@code *}, {@code ?}, <code>{var}</code>) is matched as a Spring {@link PathPattern}.</li>
+ * </ul>
+ */
+final class PublicPathMatcher {
+
+    private static final String ANY_BELOW = "/**";
+
+    private final List<String> source;
+    private final int sourceSize;
+    // Case-sensitive, matched at a segment boundary
+    private final Node prefixes = new Node();
+    // Lower-cased, matched against the whole path
+    private final Node exact = new Node();
+    private final List<PathPattern> patterns = new ArrayList<>();
+
+    private PublicPathMatcher(List<String> paths) {
+        this.source = paths;
+        this.sourceSize = paths.size();
+        for (String path : paths) {
+            if (path == null || path.isEmpty()) {
+                continue;
+            }
+            String literal = path.endsWith(ANY_BELOW) ? path.substring(0, path.length() - ANY_BELOW.length()) : path;
+            if (isPattern(literal)) {
+                patterns.add(PathPatternParser.defaultInstance.parse(path));
+                continue;
+            }
+            prefixes.insert(literal.isEmpty() ? "/" : literal, false);
+            if (literal.equals(path)) {
+                exact.insert(path, true);
+            }
+        }
+    }
+
+    static PublicPathMatcher compile(List<String> paths) {
+        return new PublicPathMatcher(paths);
+    }
+
+    /**
+     * True if this matcher was compiled from the given list; a rebound property is a new list.
+     */
+    boolean isCompiledFrom(List<String> paths) {
+        return source == paths && sourceSize == paths.size();
+    }
+
+    boolean matches(String path) {
+        return matchesPrefix(path) || matchesExactIgnoreCase(path) || matchesPattern(path);
+    }
+
+    private boolean matchesPrefix(String path) {
+        Node node = prefixes;
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal && (i + 1 == length || path.charAt(i) == '/' || path.charAt(i + 1) == '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesExactIgnoreCase(String path) {
+        Node node = exact;
+        for (int i = 0; i < path.length() && node != null; i++) {
+            node = node.child(Character.toLowerCase(path.charAt(i)));
+        }
+        return node != null && node.terminal;
+    }
+
+    private boolean matchesPattern(String path) {
+        if (patterns.isEmpty()) {
+            return false;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(container)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPattern(String path) {
+        return path.indexOf('*') >= 0 || path.indexOf('?') >= 0 || path.indexOf('{') >= 0;
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private boolean terminal;
+
+        private Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void insert(String path, boolean lowerCase) {
+            Node node = this;
+            for (int i = 0; i < path.length(); i++) {
+                char key = lowerCase ? Character.toLowerCase(path.charAt(i)) : path.charAt(i);
+                Node next = node.child(key);
+                if (next == null) {
+                    next = node.add(key);
+                }
+                node = next;
+            }
+            node.terminal = true;
+        }
+
+        private Node add(char key) {
+            int index = -(Arrays.binarySearch(keys, key) + 1);
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = key;
+            newChildren[index] = new Node();
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[index];
+        }
+    }
+}
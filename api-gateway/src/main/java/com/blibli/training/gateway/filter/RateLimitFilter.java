@@ -0,0 +1,201 @@
+package com.blibli.training.gateway.filter;
+
+import com.blibli.training.framework.dto.BaseResponse;
+import com.blibli.training.gateway.config.AuthProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiting for the paths listed in {@code gateway.auth.rate-limits}, keyed by client IP
+ * and, for JSON bodies such as login, by email. Requests over the limit get 429 with Retry-After.
+ * Requests to other paths pass straight through.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final byte[] TOO_MANY_REQUESTS_BODY = serialize(BaseResponse.error(
+            HttpStatus.TOO_MANY_REQUESTS.value(), new RuntimeException("Too many requests, please try again later")));
+    // Per limiter; older keys are forgotten first once it is reached
+    private static final int MAX_TRACKED_KEYS = 100_000;
+
+    private final List<Rule> rules;
+
+    public RateLimitFilter(AuthProperties authProperties) {
+        this.rules = authProperties.getRateLimits().stream().map(Rule::new).toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Rule rule = findRule(exchange.getRequest().getURI().getPath());
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        long now = System.nanoTime();
+        if (rule.perIp != null) {
+            long wait = rule.perIp.tryConsume(clientIp(exchange), now);
+            if (wait > 0) {
+                return reject(exchange, wait);
+            }
+        }
+        if (rule.perEmail == null) {
+            return chain.filter(exchange);
+        }
+
+        return ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange, request -> {
+            ServerWebExchange cached = exchange.mutate().request(request).build();
+            String email = extractEmail(exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR));
+            if (email != null) {
+                long wait = rule.perEmail.tryConsume(email, System.nanoTime());
+                if (wait > 0) {
+                    return reject(cached, wait);
+                }
+            }
+            return chain.filter(cached);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // Before authentication, so rejected requests cost as little as possible
+        return -2;
+    }
+
+    private Rule findRule(String path) {
+        for (Rule rule : rules) {
+            if (path.startsWith(rule.path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    // The TCP peer unless server.forward-headers-strategy is set; see AuthProperties.RateLimit
+    private static String clientIp(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        if (address == null || address.getAddress() == null) {
+            return "unknown";
+        }
+        return address.getAddress().getHostAddress();
+    }
+
+    private static String extractEmail(DataBuffer body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            JsonNode email = OBJECT_MAPPER.readTree(
+                    body.toString(body.readPosition(), body.readableByteCount(), StandardCharsets.UTF_8)).get("email");
+            return email == null || !email.isTextual() ? null : email.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (Exception e) {
+            // Not JSON; the downstream service will reject it
+            return null;
+        }
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, long waitNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(TOO_MANY_REQUESTS_BODY)));
+    }
+
+    private static byte[] serialize(BaseResponse<?> body) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Rule {
+        private final String path;
+        private final Limiter perIp;
+        private final Limiter perEmail;
+
+        private Rule(AuthProperties.RateLimit rateLimit) {
+            this.path = rateLimit.getPath();
+            long now = System.nanoTime();
+            this.perIp = rateLimit.getPerIp() == null ? null : new Limiter(rateLimit.getPerIp(), MAX_TRACKED_KEYS, now);
+            this.perEmail = rateLimit.getPerEmail() == null ? null
+                    : new Limiter(rateLimit.getPerEmail(), MAX_TRACKED_KEYS, now);
+        }
+    }
+
+    /**
+     * Buckets per key, kept in two generations so that forgetting keys never scans the map. New keys go into
+     * the current generation, and keys of the previous one move over when they are used again. The current
+     * generation becomes the previous one, and the previous one is dropped, once it holds half of
+     * {@code maxKeys} or has been open for as long as an empty bucket takes to fill up; a bucket untouched
+     * for that long is full and behaves like a new one.
+     */
+    static final class Limiter {
+        private final AuthProperties.Bucket spec;
+        private final int maxKeysPerGeneration;
+        private final long refillNanos;
+
+        private volatile Map<String, TokenBucket> current = new ConcurrentHashMap<>();
+        private volatile Map<String, TokenBucket> previous = Map.of();
+        private volatile long generationStart;
+
+        Limiter(AuthProperties.Bucket spec, int maxKeys, long now) {
+            this.spec = spec;
+            this.maxKeysPerGeneration = Math.max(1, maxKeys / 2);
+            this.refillNanos = (long) (spec.getCapacity() / spec.getRefillPerSecond() * TimeUnit.SECONDS.toNanos(1));
+            this.generationStart = now;
+        }
+
+        long tryConsume(String key, long now) {
+            Map<String, TokenBucket> buckets = current;
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxKeysPerGeneration || now - generationStart >= refillNanos) {
+                    rotate(buckets, now);
+                    buckets = current;
+                }
+                TokenBucket carried = previous.get(key);
+                bucket = buckets.computeIfAbsent(key, k -> carried != null
+                        ? carried : new TokenBucket(spec.getCapacity(), spec.getRefillPerSecond()));
+            }
+            return bucket.tryConsume(now);
+        }
+
+        int trackedKeys() {
+            return current.size() + previous.size();
+        }
+
+        private synchronized void rotate(Map<String, TokenBucket> full, long now) {
+            if (current != full) {
+                // Another request rotated first
+                return;
+            }
+            previous = full;
+            current = new ConcurrentHashMap<>();
+            generationStart = now;
+        }
+    }
+}
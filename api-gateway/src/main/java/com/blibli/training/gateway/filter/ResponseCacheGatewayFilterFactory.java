@@ -0,0 +1,426 @@
+package com.blibli.training.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Route filter caching successful GET responses in the gateway, configured per route:
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       default-ttl: 10s
+ *       max-size: 64MB
+ * </pre>
+ * The upstream's {@code Cache-Control} wins over {@code default-ttl}: {@code no-store} and {@code private}
+ * responses are never stored, and {@code max-age}/{@code s-maxage} set the lifetime. A stale entry with an
+ * ETag is revalidated with {@code If-None-Match}, and clients sending a matching {@code If-None-Match} get a 304.
+ * Concurrent misses for the same URL wait for the first one instead of all going upstream.
+ * <p>
+ * With {@code server.compression} enabled, bodies above its minimum size are also stored gzipped, so
+ * hits for clients accepting gzip are served without compressing them again.
+ * <p>
+ * The filter runs before authentication, so it only serves paths listed in {@code gateway.auth.public-paths}.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    static final String CACHE_STATUS = "X-Cache";
+
+    // Replayed on hits; CORS and hop-by-hop headers are set per request
+    private static final List<String> STORED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL);
+
+    private final AuthenticationFilter authenticationFilter;
+    private final MeterRegistry meterRegistry;
+    private final Compression compression;
+    private final Map<String, RouteCache> caches = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(AuthenticationFilter authenticationFilter, MeterRegistry meterRegistry,
+                                             ServerProperties serverProperties) {
+        super(Config.class);
+        this.authenticationFilter = authenticationFilter;
+        this.meterRegistry = meterRegistry;
+        this.compression = serverProperties.getCompression();
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("defaultTtl", "maxSize");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        // Routes are rebuilt on refresh; the cached entries survive unless the settings changed
+        RouteCache cache = caches.compute(routeId, (id, existing) -> {
+            if (existing == null) {
+                registerGauges(id);
+            }
+            return existing != null && existing.config.equals(config) ? existing : new RouteCache(id, config);
+        });
+        // Must wrap the response before NettyWriteResponseFilter writes the upstream body to it
+        return new OrderedGatewayFilter(cache::filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private void registerGauges(String routeId) {
+        Gauge.builder("gateway.response.cache.bytes", caches, c -> c.get(routeId).store.usedBytes())
+                .tag("route", routeId)
+                .description("Off-heap bytes held by the gateway response cache")
+                .register(meterRegistry);
+        Gauge.builder("gateway.response.cache.entries", caches, c -> c.get(routeId).store.size())
+                .tag("route", routeId)
+                .description("Entries in the gateway response cache")
+                .register(meterRegistry);
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        // Lifetime when the upstream sends no max-age; zero only keeps entries that can be revalidated
+        private Duration defaultTtl = Duration.ZERO;
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+        private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+    }
+
+    private final class RouteCache {
+
+        private final Config config;
+        private final ResponseCacheStore store;
+        private final Map<String, Sinks.Empty<Void>> inFlight = new ConcurrentHashMap<>();
+
+        private final Counter hits;
+        private final Counter coalesced;
+        private final Counter misses;
+        private final Counter revalidations;
+        private final Counter bypassed;
+
+        private RouteCache(String routeId, Config config) {
+            this.config = config;
+            this.store = new ResponseCacheStore(config.getMaxSize().toBytes());
+            this.hits = counter(routeId, "hit");
+            this.coalesced = counter(routeId, "coalesced");
+            this.misses = counter(routeId, "miss");
+            this.revalidations = counter(routeId, "revalidate");
+            this.bypassed = counter(routeId, "bypass");
+        }
+
+        private Counter counter(String routeId, String result) {
+            return Counter.builder("gateway.response.cache")
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .description("Requests seen by the gateway response cache")
+                    .register(meterRegistry);
+        }
+
+        private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!HttpMethod.GET.equals(request.getMethod())
+                    || !authenticationFilter.isPublicPath(request.getURI().getPath())
+                    || hasDirective(request.getHeaders().getCacheControl(), "no-cache", "no-store")) {
+                bypassed.increment();
+                return chain.filter(exchange);
+            }
+
+            String key = key(request);
+            long now = System.currentTimeMillis();
+            ResponseCacheStore.Entry cached = store.get(key);
+            if (cached != null && cached.isFresh(now)) {
+                hits.increment();
+                return write(exchange, cached, now, "HIT");
+            }
+
+            Sinks.Empty<Void> leader = Sinks.empty();
+            Sinks.Empty<Void> running = inFlight.putIfAbsent(key, leader);
+            if (running != null) {
+                coalesced.increment();
+                return running.asMono().then(Mono.defer(() -> {
+                    long at = System.currentTimeMillis();
+                    ResponseCacheStore.Entry filled = store.get(key);
+                    // Not cacheable after all: go upstream like an uncached request
+                    return filled != null && filled.isFresh(at) ? write(exchange, filled, at, "HIT") : chain.filter(exchange);
+                }));
+            }
+
+            ResponseCacheStore.Entry stale = cached != null && cached.etag() != null ? cached : null;
+            (stale != null ? revalidations : misses).increment();
+            return fetch(exchange, chain, key, stale)
+                    .doFinally(signal -> {
+                        inFlight.remove(key, leader);
+                        leader.tryEmitEmpty();
+                    });
+        }
+
+        private Mono<Void> fetch(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+                                 ResponseCacheStore.Entry stale) {
+            // The client's own validators are answered here, so the upstream always returns a full body
+            ServerHttpRequest upstream = exchange.getRequest().mutate()
+                    .headers(headers -> {
+                        headers.remove(HttpHeaders.IF_NONE_MATCH);
+                        headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                        if (stale != null) {
+                            headers.setIfNoneMatch(stale.etag());
+                        }
+                    })
+                    .build();
+            CachingResponse response = new CachingResponse(exchange, key, stale);
+            return chain.filter(exchange.mutate().request(upstream).response(response).build());
+        }
+
+        /**
+         * @return lifetime in millis, or -1 if the response must not be stored
+         */
+        private long ttlMillis(HttpHeaders headers, List<String> gatewayVary) {
+            String cacheControl = headers.getCacheControl();
+            if (hasDirective(cacheControl, "no-store", "private")
+                    || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                    || !headers.getVary().stream().allMatch(name -> HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(name)
+                            || gatewayVary.contains(name))) {
+                return -1;
+            }
+            if (hasDirective(cacheControl, "no-cache")) {
+                return 0;
+            }
+            long sharedMaxAge = directiveSeconds(cacheControl, "s-maxage");
+            long maxAge = sharedMaxAge >= 0 ? sharedMaxAge : directiveSeconds(cacheControl, "max-age");
+            return maxAge >= 0 ? maxAge * 1000 : config.getDefaultTtl().toMillis();
+        }
+
+        /**
+         * Stores 200 responses on their way to the client, and turns the upstream's 304 for a
+         * revalidated entry back into the cached 200.
+         */
+        private final class CachingResponse extends ServerHttpResponseDecorator {
+
+            private final ServerWebExchange exchange;
+            private final String key;
+            private final ResponseCacheStore.Entry stale;
+            // Added by the gateway's CORS handling before the upstream answered
+            private final List<String> gatewayVary;
+
+            private CachingResponse(ServerWebExchange exchange, String key, ResponseCacheStore.Entry stale) {
+                super(exchange.getResponse());
+                this.exchange = exchange;
+                this.key = key;
+                this.stale = stale;
+                this.gatewayVary = List.copyOf(exchange.getResponse().getHeaders().getVary());
+            }
+
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                long now = System.currentTimeMillis();
+                HttpHeaders headers = getHeaders();
+
+                if (stale != null && HttpStatus.NOT_MODIFIED.equals(getStatusCode())) {
+                    // A 304 may leave out Cache-Control; the stored one still applies
+                    long ttl = ttlMillis(headers.getCacheControl() != null ? headers : stale.headers(), gatewayVary);
+                    ResponseCacheStore.Entry refreshed = stale.revalidated(now, Math.max(ttl, 0));
+                    if (ttl >= 0) {
+                        store.put(key, refreshed);
+                    }
+                    return Flux.from(body)
+                            .doOnNext(DataBufferUtils::release)
+                            .then(Mono.defer(() -> write(exchange, refreshed, now, "REVALIDATED")));
+                }
+
+                long ttl = ttlMillis(headers, gatewayVary);
+                long contentLength = headers.getContentLength();
+                long maxEntrySize = config.getMaxEntrySize().toBytes();
+                if (!HttpStatus.OK.equals(getStatusCode()) || ttl < 0 || contentLength > maxEntrySize) {
+                    return super.writeWith(body);
+                }
+
+                return DataBufferUtils.join(body).defaultIfEmpty(bufferFactory().wrap(new byte[0])).flatMap(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+
+                    String etag = headers.getETag();
+                    if (bytes.length <= maxEntrySize && (ttl > 0 || etag != null)) {
+                        ResponseCacheStore.Entry entry = ResponseCacheStore.Entry.of(bytes, storedHeaders(headers),
+                                now, ttl, shouldGzip(headers.getContentType(), bytes.length));
+                        store.put(key, entry);
+                        return write(exchange, entry, now, "MISS");
+                    }
+                    headers.set(CACHE_STATUS, "MISS");
+                    if (matches(exchange.getRequest().getHeaders().getIfNoneMatch(), etag)) {
+                        return notModified(getDelegate());
+                    }
+                    return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+        }
+    }
+
+    private boolean shouldGzip(MediaType contentType, int length) {
+        if (!compression.getEnabled() || contentType == null
+                || length < compression.getMinResponseSize().toBytes()) {
+            return false;
+        }
+        for (String mimeType : compression.getMimeTypes()) {
+            if (MediaType.parseMediaType(mimeType).isCompatibleWith(contentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, ResponseCacheStore.Entry entry, long now,
+                                    String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        response.setStatusCode(HttpStatus.OK);
+        entry.headers().forEach((name, values) -> headers.put(name, new ArrayList<>(values)));
+        headers.set(HttpHeaders.AGE, Long.toString(entry.ageSeconds(now)));
+        headers.set(CACHE_STATUS, cacheStatus);
+        if (matches(exchange.getRequest().getHeaders().getIfNoneMatch(), entry.etag())) {
+            return notModified(response);
+        }
+        ByteBuffer gzipBody = entry.gzipBody();
+        boolean gzip = gzipBody != null && acceptsGzip(exchange.getRequest().getHeaders());
+        if (gzipBody != null && !headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            // Already encoded, so the server's compressor passes it through
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        ByteBuffer body = gzip ? gzipBody : entry.body();
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.setContentLength(body.remaining());
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+    }
+
+    private static Mono<Void> notModified(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        return response.setComplete();
+    }
+
+    private static boolean acceptsGzip(HttpHeaders headers) {
+        for (String value : headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                int semicolon = coding.indexOf(';');
+                String name = (semicolon < 0 ? coding : coding.substring(0, semicolon)).trim();
+                if (name.equalsIgnoreCase("gzip")) {
+                    return semicolon < 0 || !isZeroQuality(coding.substring(semicolon + 1));
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+        String trimmed = parameter.trim();
+        if (!trimmed.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(trimmed.substring(2)) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static HttpHeaders storedHeaders(HttpHeaders headers) {
+        HttpHeaders stored = new HttpHeaders();
+        for (String name : STORED_HEADERS) {
+            List<String> values = headers.get(name);
+            if (values != null) {
+                stored.put(name, List.copyOf(values));
+            }
+        }
+        return stored;
+    }
+
+    private static String key(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getURI().getRawPath();
+        return query == null ? path : path + '?' + query;
+    }
+
+    private static boolean matches(List<String> clientEtags, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : clientEtags) {
+            if ("*".equals(candidate) || stripWeak(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static boolean hasDirective(String cacheControl, String... names) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String name = directive.trim();
+            for (String candidate : names) {
+                if (name.equalsIgnoreCase(candidate)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static long directiveSeconds(String cacheControl, String name) {
+        if (cacheControl == null) {
+            return -1;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.regionMatches(true, 0, name + "=", 0, name.length() + 1)) {
+                try {
+                    return Long.parseLong(trimmed.substring(name.length() + 1).replace("\"", ""));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+}
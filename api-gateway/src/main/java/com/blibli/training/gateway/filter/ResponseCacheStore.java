@@ -0,0 +1,167 @@
+package com.blibli.training.gateway.filter;
+
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cached response bodies kept in direct buffers, so a large cache does not add to heap or GC pressure.
+ * Reads are lock-free; once the stored bytes exceed the budget the least recently read entries are
+ * dropped until the cache is back under 90% of it.
+ */
+final class ResponseCacheStore {
+
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    ResponseCacheStore(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastAccess = System.nanoTime();
+        }
+        return entry;
+    }
+
+    void put(String key, Entry entry) {
+        if (entry.size() > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        usedBytes.addAndGet(entry.size() - (previous == null ? 0 : previous.size()));
+        if (usedBytes.get() > maxBytes) {
+            evict();
+        }
+    }
+
+    long usedBytes() {
+        return usedBytes.get();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        synchronized (evictionLock) {
+            long target = maxBytes / 10 * 9;
+            if (usedBytes.get() <= target) {
+                return;
+            }
+            List<Map.Entry<String, Entry>> byAge = new ArrayList<>(entries.entrySet());
+            byAge.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+            for (Map.Entry<String, Entry> candidate : byAge) {
+                if (usedBytes.get() <= target) {
+                    break;
+                }
+                if (entries.remove(candidate.getKey(), candidate.getValue())) {
+                    usedBytes.addAndGet(-candidate.getValue().size());
+                }
+            }
+        }
+    }
+
+    /**
+     * A 200 response: the headers worth replaying and read-only direct buffers holding the body,
+     * optionally also gzipped once so hits are not compressed again on every request.
+     */
+    static final class Entry {
+        private final ByteBuffer body;
+        private final ByteBuffer gzipBody;
+        private final HttpHeaders headers;
+        private final String etag;
+        private final long storedAt;
+        private final long expiresAt;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Entry(ByteBuffer body, ByteBuffer gzipBody, HttpHeaders headers, String etag, long storedAt,
+                      long expiresAt) {
+            this.body = body;
+            this.gzipBody = gzipBody;
+            this.headers = headers;
+            this.etag = etag;
+            this.storedAt = storedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        static Entry of(byte[] body, HttpHeaders headers, long now, long ttlMillis, boolean gzip) {
+            byte[] compressed = gzip ? gzip(body) : null;
+            // Not worth keeping if it did not shrink
+            ByteBuffer gzipBody = compressed != null && compressed.length < body.length ? direct(compressed) : null;
+            return new Entry(direct(body), gzipBody, HttpHeaders.readOnlyHttpHeaders(headers),
+                    headers.getETag(), now, now + ttlMillis);
+        }
+
+        /**
+         * The same body, fresh again after the upstream confirmed it with a 304.
+         */
+        Entry revalidated(long now, long ttlMillis) {
+            return new Entry(body, gzipBody, headers, etag, now, now + ttlMillis);
+        }
+
+        boolean isFresh(long now) {
+            return now < expiresAt;
+        }
+
+        /**
+         * A view of the body with its own position, safe to hand to one response.
+         */
+        ByteBuffer body() {
+            return body.duplicate();
+        }
+
+        /**
+         * @return the gzipped body, or null if it was not compressed
+         */
+        ByteBuffer gzipBody() {
+            return gzipBody == null ? null : gzipBody.duplicate();
+        }
+
+        HttpHeaders headers() {
+            return headers;
+        }
+
+        String etag() {
+            return etag;
+        }
+
+        long ageSeconds(long now) {
+            return Math.max(0, (now - storedAt) / 1000);
+        }
+
+        int size() {
+            return body.capacity() + (gzipBody == null ? 0 : gzipBody.capacity());
+        }
+
+        private static ByteBuffer direct(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes).flip();
+            return buffer.asReadOnlyBuffer();
+        }
+
+        private static byte[] gzip(byte[] body) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.blibli.training.gateway.filter;
+
+import com.blibli.training.framework.dto.BaseResponse;
+import com.blibli.training.gateway.config.AuthProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked access token ids (jti), kept in sync by polling the member service.
+ * Entries are dropped once the token would have expired anyway, so the set stays bounded by
+ * the number of tokens revoked within one access token lifetime.
+ */
+@Slf4j
+@Component
+public class RevocationList {
+
+    private static final ParameterizedTypeReference<BaseResponse<Batch>> BATCH_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final WebClient webClient;
+    private final AuthProperties.Revocation properties;
+
+    // Server time of the last successful poll; 0 loads every revocation that is still live
+    private volatile long cursor;
+
+    public RevocationList(WebClient.Builder webClientBuilder, AuthProperties authProperties) {
+        this.webClient = webClientBuilder.build();
+        this.properties = authProperties.getRevocation();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public void revoke(String jti, long expiresAt) {
+        revoked.merge(jti, expiresAt, Math::max);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.auth.revocation.poll-interval:5s}")
+    public void poll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long since = Math.max(0, cursor - properties.getOverlap().toMillis());
+        try {
+            BaseResponse<Batch> response = webClient.get()
+                    .uri(properties.getUrl() + "?since={since}", since)
+                    .retrieve()
+                    .bodyToMono(BATCH_TYPE)
+                    .block(properties.getPollInterval());
+            if (response != null && response.getData() != null) {
+                apply(response.getData());
+            }
+        } catch (RuntimeException e) {
+            // Keep serving the last known list; the next poll starts from the same cursor
+            log.warn("Failed to poll token revocations: {}", e.getMessage());
+        }
+        prune(System.currentTimeMillis());
+    }
+
+    void apply(Batch batch) {
+        if (batch.revocations() != null) {
+            batch.revocations().forEach(entry -> revoke(entry.jti(), entry.expiresAt()));
+        }
+        cursor = batch.serverTime();
+    }
+
+    void prune(long nowMillis) {
+        revoked.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+    }
+
+    record Batch(long serverTime, List<Entry> revocations) {
+    }
+
+    record Entry(String jti, long expiresAt) {
+    }
+}
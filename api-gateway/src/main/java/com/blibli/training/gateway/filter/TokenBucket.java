@@ -0,0 +1,44 @@
+package com.blibli.training.gateway.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The state is kept as a single "theoretical arrival time" (the GCRA form of a
+ * token bucket): the bucket is full whenever that time is in the past, and each request pushes it forward
+ * by one refill interval. A request is allowed while the time stays within {@code capacity} intervals of now.
+ */
+class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong arrivalTime = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(int capacity, double refillPerSecond) {
+        this.intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = intervalNanos * (capacity - 1L);
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            long current = arrivalTime.get();
+            long start = Math.max(current, nowNanos);
+            long wait = start - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrivalTime.compareAndSet(current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A full bucket behaves exactly like a new one, so it can be dropped.
+     */
+    boolean isFull(long nowNanos) {
+        return arrivalTime.get() <= nowNanos;
+    }
+}
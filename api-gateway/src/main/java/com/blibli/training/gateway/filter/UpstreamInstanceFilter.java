@@ -0,0 +1,58 @@
+package com.blibli.training.gateway.filter;
+
+import com.blibli.training.gateway.loadbalancer.UpstreamInstances;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Counts each request against the instance the load balancer picked for it, while it is in flight and
+ * by how it ended. Connection errors, timeouts and 5xx responses count towards outlier ejection.
+ */
+@Component
+public class UpstreamInstanceFilter implements GlobalFilter, Ordered {
+
+    private final UpstreamInstances upstreamInstances;
+
+    public UpstreamInstanceFilter(UpstreamInstances upstreamInstances) {
+        this.upstreamInstances = upstreamInstances;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(
+                ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !chosen.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        UpstreamInstances.Instance instance = upstreamInstances.get(chosen.getServer());
+        instance.started();
+        return chain.filter(exchange).doFinally(signal -> {
+            long now = System.nanoTime();
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            if (signal == SignalType.CANCEL) {
+                instance.cancelled();
+            } else if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+                instance.failed(now);
+            } else {
+                instance.succeeded(now);
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // Right after the instance is chosen
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
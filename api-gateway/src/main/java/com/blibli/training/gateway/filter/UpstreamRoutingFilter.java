@@ -0,0 +1,35 @@
+package com.blibli.training.gateway.filter;
+
+import com.blibli.training.gateway.config.UpstreamPoolProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * The gateway's routing filter, speaking h2c to the routes that set {@code gateway.upstream.routes.<id>.h2c}.
+ * Replaces the default one, which is switched off with {@code global-filter.netty-routing.enabled: false}.
+ */
+public class UpstreamRoutingFilter extends NettyRoutingFilter {
+
+    private final UpstreamPoolProperties upstreamPoolProperties;
+
+    public UpstreamRoutingFilter(HttpClient httpClient, ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                 HttpClientProperties properties, UpstreamPoolProperties upstreamPoolProperties) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.upstreamPoolProperties = upstreamPoolProperties;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient httpClient = super.getHttpClient(route, exchange);
+        UpstreamPoolProperties.Pool pool = upstreamPoolProperties.getRoutes().get(route.getId());
+        return pool != null && pool.isH2c() ? httpClient.protocol(HttpProtocol.H2C) : httpClient;
+    }
+}
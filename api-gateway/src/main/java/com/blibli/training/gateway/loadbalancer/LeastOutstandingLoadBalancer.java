@@ -0,0 +1,62 @@
+package com.blibli.training.gateway.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power of two choices: picks two healthy instances at random and sends the request to the one with fewer
+ * requests in flight. Ejected instances are skipped unless every instance is ejected.
+ */
+public class LeastOutstandingLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final UpstreamInstances upstreamInstances;
+
+    public LeastOutstandingLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                        UpstreamInstances upstreamInstances) {
+        this.supplierProvider = supplierProvider;
+        this.upstreamInstances = upstreamInstances;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            ServiceInstance chosen = choose(instances, System.nanoTime());
+            return chosen != null ? new DefaultResponse(chosen) : new EmptyResponse();
+        });
+    }
+
+    ServiceInstance choose(List<ServiceInstance> instances, long now) {
+        List<ServiceInstance> candidates = instances.stream()
+                .filter(instance -> !upstreamInstances.get(instance).isEjected(now))
+                .toList();
+        if (candidates.isEmpty()) {
+            // Better to try a failing instance than to fail every request
+            candidates = instances;
+        }
+        if (candidates.size() <= 1) {
+            return candidates.isEmpty() ? null : candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return upstreamInstances.get(b).outstanding() < upstreamInstances.get(a).outstanding() ? b : a;
+    }
+}
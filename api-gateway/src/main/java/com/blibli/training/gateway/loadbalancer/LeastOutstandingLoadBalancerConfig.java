@@ -0,0 +1,37 @@
+package com.blibli.training.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer beans, created in each service's own child context. Not a
+ * {@code @Configuration}, so component scanning leaves it out of the main context.
+ */
+public class LeastOutstandingLoadBalancerConfig {
+
+    /**
+     * Instances from {@code spring.cloud.discovery.client.simple.instances}, keeping only those whose
+     * {@code spring.cloud.loadbalancer.health-check.path} answers 200.
+     */
+    @Bean
+    public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context) {
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .withHealthChecks()
+                .build(context);
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> leastOutstandingLoadBalancer(Environment environment,
+                                                                            LoadBalancerClientFactory clientFactory,
+                                                                            UpstreamInstances upstreamInstances) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LeastOutstandingLoadBalancer(
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), upstreamInstances);
+    }
+}
@@ -0,0 +1,118 @@
+package com.blibli.training.gateway.loadbalancer;
+
+import com.blibli.training.gateway.config.OutlierDetectionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What the gateway knows about each instance of its {@code lb://} services: requests in flight, for
+ * {@link LeastOutstandingLoadBalancer}, and recent failures, for outlier ejection.
+ */
+@Slf4j
+@Component
+public class UpstreamInstances {
+
+    // Ejection time stops doubling here, well before the shift could overflow
+    private static final int MAX_DOUBLINGS = 16;
+
+    private final OutlierDetectionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Instance> instances = new ConcurrentHashMap<>();
+
+    public UpstreamInstances(OutlierDetectionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Instance get(ServiceInstance serviceInstance) {
+        String address = serviceInstance.getHost() + ":" + serviceInstance.getPort();
+        return instances.computeIfAbsent(serviceInstance.getServiceId() + "/" + address,
+                key -> new Instance(serviceInstance.getServiceId(), address));
+    }
+
+    public final class Instance {
+
+        private final String serviceId;
+        private final String address;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final Counter ejectionCounter;
+        // Times ejected since the last success; each ejection lasts twice as long as the one before
+        private volatile int ejections;
+        private volatile long ejectedUntil;
+
+        private Instance(String serviceId, String address) {
+            this.serviceId = serviceId;
+            this.address = address;
+            Gauge.builder("gateway.upstream.outstanding", outstanding, AtomicInteger::get)
+                    .tag("service", serviceId)
+                    .tag("instance", address)
+                    .description("Requests in flight to the instance")
+                    .register(meterRegistry);
+            this.ejectionCounter = Counter.builder("gateway.upstream.ejections")
+                    .tag("service", serviceId)
+                    .tag("instance", address)
+                    .description("Times the instance was ejected for consecutive failures")
+                    .register(meterRegistry);
+        }
+
+        public int outstanding() {
+            return outstanding.get();
+        }
+
+        public boolean isEjected(long now) {
+            return ejections > 0 && now - ejectedUntil < 0;
+        }
+
+        public void started() {
+            outstanding.incrementAndGet();
+        }
+
+        public void succeeded(long now) {
+            outstanding.decrementAndGet();
+            consecutiveFailures.set(0);
+            if (ejections > 0 && !isEjected(now)) {
+                ejections = 0;
+            }
+        }
+
+        /**
+         * Connection error, timeout or 5xx response.
+         */
+        public void failed(long now) {
+            outstanding.decrementAndGet();
+            if (consecutiveFailures.incrementAndGet() >= properties.getConsecutiveFailures()) {
+                eject(now);
+            }
+        }
+
+        /**
+         * The client went away before the instance answered; says nothing about the instance.
+         */
+        public void cancelled() {
+            outstanding.decrementAndGet();
+        }
+
+        private synchronized void eject(long now) {
+            if (consecutiveFailures.get() < properties.getConsecutiveFailures()) {
+                return;
+            }
+            consecutiveFailures.set(0);
+            long nanos = Math.min(properties.getBaseEjectionTime().toNanos() << Math.min(ejections, MAX_DOUBLINGS),
+                    properties.getMaxEjectionTime().toNanos());
+            ejectedUntil = now + nanos;
+            ejections++;
+            ejectionCounter.increment();
+            log.warn("Ejected {} instance {} for {} ms after {} consecutive failures", serviceId, address,
+                    nanos / 1_000_000, properties.getConsecutiveFailures());
+        }
+    }
+}
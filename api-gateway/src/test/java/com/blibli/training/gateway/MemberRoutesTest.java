@@ -0,0 +1,41 @@
+package com.blibli.training.gateway;
+
+import com.blibli.training.framework.security.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class MemberRoutesTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void memberProfiles_WithOrdinaryToken_ShouldNotBeRouted() {
+        // Given - signed in as member 1
+        String token = jwtUtils.generateToken("user@example.com", Map.of("userId", 1L));
+
+        // When & Then - another member's profile, and everyone's at once
+        webTestClient.get().uri("/member/internal/members/2")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.post().uri("/member/internal/members/batch-get")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[1, 2, 3]")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,97 @@
+package com.blibli.training.gateway.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.simple.SimpleDiscoveryProperties;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamHttpClientFactoryTest {
+
+    @Test
+    void buildConnectionProvider_WithRoutePools_ShouldLimitEachRouteHost() {
+        // Given
+        GatewayProperties gatewayProperties = new GatewayProperties();
+        gatewayProperties.setRoutes(List.of(route("member-service", "http://localhost:8081"),
+                route("product-service", "http://localhost:8082"),
+                route("cart-service", "http://localhost:8083")));
+        UpstreamPoolProperties.Pool memberPool = new UpstreamPoolProperties.Pool();
+        memberPool.setMaxConnections(50);
+        UpstreamPoolProperties.Pool productPool = new UpstreamPoolProperties.Pool();
+        productPool.setMaxConnections(300);
+        UpstreamPoolProperties upstreamPoolProperties = new UpstreamPoolProperties();
+        upstreamPoolProperties.setRoutes(Map.of("member-service", memberPool, "product-service", productPool));
+        HttpClientProperties httpClientProperties = new HttpClientProperties();
+        UpstreamHttpClientFactory factory = new UpstreamHttpClientFactory(httpClientProperties, new ServerProperties(),
+                null, List.of(), gatewayProperties, upstreamPoolProperties, new SimpleDiscoveryProperties());
+
+        // When
+        ConnectionProvider provider = factory.buildConnectionProvider(httpClientProperties);
+
+        // Then
+        Map<?, Integer> perHost = provider.maxConnectionsPerHost();
+        assertEquals(50, perHost.get(InetSocketAddress.createUnresolved("localhost", 8081)));
+        assertEquals(300, perHost.get(InetSocketAddress.createUnresolved("localhost", 8082)));
+        assertFalse(perHost.containsKey(InetSocketAddress.createUnresolved("localhost", 8083)));
+        provider.dispose();
+    }
+
+    @Test
+    void buildConnectionProvider_WithLoadBalancedRoute_ShouldLimitEachInstance() {
+        // Given
+        GatewayProperties gatewayProperties = new GatewayProperties();
+        gatewayProperties.setRoutes(List.of(route("product-service", "lb://product-service")));
+        UpstreamPoolProperties.Pool productPool = new UpstreamPoolProperties.Pool();
+        productPool.setMaxConnections(300);
+        UpstreamPoolProperties upstreamPoolProperties = new UpstreamPoolProperties();
+        upstreamPoolProperties.setRoutes(Map.of("product-service", productPool));
+        SimpleDiscoveryProperties discoveryProperties = new SimpleDiscoveryProperties();
+        discoveryProperties.setInstances(Map.of("product-service", List.of(
+                instance("http://localhost:8082"), instance("http://localhost:8092"))));
+        HttpClientProperties httpClientProperties = new HttpClientProperties();
+        UpstreamHttpClientFactory factory = new UpstreamHttpClientFactory(httpClientProperties, new ServerProperties(),
+                null, List.of(), gatewayProperties, upstreamPoolProperties, discoveryProperties);
+
+        // When
+        ConnectionProvider provider = factory.buildConnectionProvider(httpClientProperties);
+
+        // Then
+        Map<?, Integer> perHost = provider.maxConnectionsPerHost();
+        assertEquals(300, perHost.get(InetSocketAddress.createUnresolved("localhost", 8082)));
+        assertEquals(300, perHost.get(InetSocketAddress.createUnresolved("localhost", 8092)));
+        provider.dispose();
+    }
+
+    @Test
+    void remoteAddress_WithoutPort_ShouldUseSchemeDefault() {
+        // When
+        InetSocketAddress address = UpstreamHttpClientFactory.remoteAddress(URI.create("https://product-service"));
+
+        // Then
+        assertEquals(InetSocketAddress.createUnresolved("product-service", 443), address);
+        assertNull(UpstreamHttpClientFactory.remoteAddress(URI.create("no://op")));
+    }
+
+    private static DefaultServiceInstance instance(String uri) {
+        DefaultServiceInstance instance = new DefaultServiceInstance();
+        instance.setUri(URI.create(uri));
+        return instance;
+    }
+
+    private static RouteDefinition route(String id, String uri) {
+        RouteDefinition route = new RouteDefinition();
+        route.setId(id);
+        route.setUri(URI.create(uri));
+        return route;
+    }
+}
@@ -0,0 +1,89 @@
+package com.blibli.training.gateway.controller;
+
+import com.blibli.training.framework.dto.BaseResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.support.TimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+class FallbackControllerTest {
+
+    private MeterRegistry meterRegistry;
+    private FallbackController fallbackController;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fallbackController = new FallbackController(meterRegistry);
+    }
+
+    @Test
+    void fallback_CircuitOpen_ShouldReturn503WithRetryAfter() {
+        // Given
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("product-service");
+        circuitBreaker.transitionToOpenState();
+        MockServerWebExchange exchange = forwarded(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+
+        // When
+        ResponseEntity<BaseResponse<Void>> response = fallbackController.fallback("product-service", exchange);
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertFalse(response.getBody().isSuccess());
+        assertEquals(503, response.getBody().getCode());
+        assertEquals(1.0, meterRegistry.get("gateway.fallback")
+                .tags("route", "product-service", "reason", "circuit_open").counter().count());
+    }
+
+    @Test
+    void fallback_BulkheadFull_ShouldCountAsBulkheadRejection() {
+        // Given
+        MockServerWebExchange exchange = forwarded(BulkheadFullException.createBulkheadFullException(
+                Bulkhead.ofDefaults("member-service")));
+
+        // When
+        ResponseEntity<BaseResponse<Void>> response = fallbackController.fallback("member-service", exchange);
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(1.0, meterRegistry.get("gateway.fallback")
+                .tags("route", "member-service", "reason", "bulkhead").counter().count());
+    }
+
+    @Test
+    void fallback_ResponseTimeout_ShouldReturn504() {
+        // Given
+        MockServerWebExchange exchange = forwarded(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                "Response took longer than timeout: PT5S", new TimeoutException("PT5S")));
+
+        // When
+        ResponseEntity<BaseResponse<Void>> response = fallbackController.fallback("cart-service", exchange);
+
+        // Then
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("gateway.fallback")
+                .tags("route", "cart-service", "reason", "timeout").counter().count());
+    }
+
+    private static MockServerWebExchange forwarded(Throwable cause) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/fallback/route"));
+        exchange.getAttributes().put(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR, cause);
+        return exchange;
+    }
+}
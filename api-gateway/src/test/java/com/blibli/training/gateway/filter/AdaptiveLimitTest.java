@@ -0,0 +1,55 @@
+package com.blibli.training.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimitTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void onSample_FastAndBusy_ShouldGrowUpToMax() {
+        // Given
+        AdaptiveLimit limit = new AdaptiveLimit(10, 2, 12, 2.0);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            limit.onSample(20 * MILLIS, 10, false);
+        }
+
+        // Then
+        assertEquals(12, limit.get());
+    }
+
+    @Test
+    void onSample_MostlyIdle_ShouldNotGrow() {
+        // Given
+        AdaptiveLimit limit = new AdaptiveLimit(10, 2, 100, 2.0);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            limit.onSample(20 * MILLIS, 1, false);
+        }
+
+        // Then
+        assertEquals(10, limit.get());
+    }
+
+    @Test
+    void onSample_SlowOrFailed_ShouldBackOffToMin() {
+        // Given
+        AdaptiveLimit limit = new AdaptiveLimit(20, 15, 100, 2.0);
+        limit.onSample(20 * MILLIS, 20, false);
+        assertEquals(21, limit.get());
+
+        // When & Then
+        limit.onSample(100 * MILLIS, 20, false);
+        assertEquals(18, limit.get());
+        limit.onSample(5 * MILLIS, 20, true);
+        limit.onSample(5 * MILLIS, 20, true);
+        assertEquals(15, limit.get());
+    }
+}
@@ -3,6 +3,7 @@ package com.blibli.training.gateway.filter;
 import com.blibli.training.framework.security.JwtUtils;
 import com.blibli.training.gateway.config.AuthProperties;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,7 +23,6 @@ import reactor.test.StepVerifier;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,6 +38,9 @@ class AuthenticationFilterTest {
     @Mock
     private AuthProperties authProperties;
 
+    @Mock
+    private RevocationList revocationList;
+
     @Mock
     private GatewayFilterChain chain;
 
@@ -68,7 +71,7 @@ class AuthenticationFilterTest {
         StepVerifier.create(result)
                 .verifyComplete();
         verify(chain, times(1)).filter(exchange);
-        verify(jwtUtils, never()).validateToken(anyString());
+        verify(jwtUtils, never()).parseClaims(anyString());
     }
 
     @Test
@@ -87,7 +90,7 @@ class AuthenticationFilterTest {
         StepVerifier.create(result)
                 .verifyComplete();
         verify(chain, times(1)).filter(exchange);
-        verify(jwtUtils, never()).validateToken(anyString());
+        verify(jwtUtils, never()).parseClaims(anyString());
     }
 
     @Test
@@ -102,8 +105,7 @@ class AuthenticationFilterTest {
                 .build();
         ServerWebExchange exchange = MockServerWebExchange.from(request);
         
-        when(jwtUtils.validateToken(token)).thenReturn(true);
-        when(jwtUtils.getClaimFromToken(eq(token), any())).thenReturn(userId);
+        when(jwtUtils.parseClaims(token)).thenReturn(claims(userId));
         when(chain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
 
         // When
@@ -113,8 +115,8 @@ class AuthenticationFilterTest {
         StepVerifier.create(result)
                 .verifyComplete();
         
-        verify(jwtUtils, times(1)).validateToken(token);
-        verify(jwtUtils, times(1)).getClaimFromToken(eq(token), any());
+        verify(jwtUtils, times(1)).parseClaims(token);
+        verifyNoMoreInteractions(jwtUtils);
         verify(chain, times(1)).filter(any(ServerWebExchange.class));
     }
 
@@ -130,8 +132,7 @@ class AuthenticationFilterTest {
                 .build();
         ServerWebExchange exchange = MockServerWebExchange.from(request);
         
-        when(jwtUtils.validateToken(token)).thenReturn(true);
-        when(jwtUtils.getClaimFromToken(eq(token), any())).thenReturn(userId);
+        when(jwtUtils.parseClaims(token)).thenReturn(claims(userId));
         when(chain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
 
         // When
@@ -141,8 +142,7 @@ class AuthenticationFilterTest {
         StepVerifier.create(result)
                 .verifyComplete();
         
-        verify(jwtUtils, times(1)).validateToken(token);
-        verify(jwtUtils, times(1)).getClaimFromToken(eq(token), any());
+        verify(jwtUtils, times(1)).parseClaims(token);
         verify(chain, times(1)).filter(any(ServerWebExchange.class));
     }
 
@@ -163,7 +163,7 @@ class AuthenticationFilterTest {
         
         assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
         verify(chain, never()).filter(any(ServerWebExchange.class));
-        verify(jwtUtils, never()).validateToken(anyString());
+        verify(jwtUtils, never()).parseClaims(anyString());
     }
 
     @Test
@@ -177,7 +177,7 @@ class AuthenticationFilterTest {
                 .build();
         ServerWebExchange exchange = MockServerWebExchange.from(request);
         
-        when(jwtUtils.validateToken(token)).thenReturn(false);
+        when(jwtUtils.parseClaims(token)).thenReturn(null);
 
         // When
         Mono<Void> result = authenticationFilter.filter(exchange, chain);
@@ -187,7 +187,7 @@ class AuthenticationFilterTest {
                 .verifyComplete();
         
         assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
-        verify(jwtUtils, times(1)).validateToken(token);
+        verify(jwtUtils, times(1)).parseClaims(token);
         verify(chain, never()).filter(any(ServerWebExchange.class));
     }
 
@@ -225,8 +225,7 @@ class AuthenticationFilterTest {
                 .build();
         ServerWebExchange exchange = MockServerWebExchange.from(request);
         
-        when(jwtUtils.validateToken(headerToken)).thenReturn(true);
-        when(jwtUtils.getClaimFromToken(eq(headerToken), any())).thenReturn(userId);
+        when(jwtUtils.parseClaims(headerToken)).thenReturn(claims(userId));
         when(chain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
 
         // When
@@ -236,8 +235,8 @@ class AuthenticationFilterTest {
         StepVerifier.create(result)
                 .verifyComplete();
         
-        verify(jwtUtils, times(1)).validateToken(headerToken);
-        verify(jwtUtils, never()).validateToken(cookieToken);
+        verify(jwtUtils, times(1)).parseClaims(headerToken);
+        verify(jwtUtils, never()).parseClaims(cookieToken);
         verify(chain, times(1)).filter(any(ServerWebExchange.class));
     }
 
@@ -319,13 +318,7 @@ class AuthenticationFilterTest {
                 .build();
         ServerWebExchange exchange = MockServerWebExchange.from(request);
         
-        when(jwtUtils.validateToken(token)).thenReturn(true);
-        when(jwtUtils.getClaimFromToken(eq(token), any())).thenAnswer(invocation -> {
-            Function<Claims, Object> resolver = invocation.getArgument(1);
-            Claims mockClaims = mock(Claims.class);
-            when(mockClaims.get("userId")).thenReturn(expectedUserId);
-            return resolver.apply(mockClaims);
-        });
+        when(jwtUtils.parseClaims(token)).thenReturn(claims(expectedUserId));
         when(chain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
 
         // When
@@ -335,7 +328,71 @@ class AuthenticationFilterTest {
         StepVerifier.create(result)
                 .verifyComplete();
         
-        verify(jwtUtils, times(1)).getClaimFromToken(eq(token), any());
+        verify(jwtUtils, times(1)).parseClaims(token);
+    }
+
+    @Test
+    void filter_WithTierClaim_ShouldExposeUserAndTierToLaterFilters() {
+        // Given
+        String token = "premium.jwt.token";
+        MockServerHttpRequest request = MockServerHttpRequest
+                .get("/api/cart")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+        ServerWebExchange exchange = MockServerWebExchange.from(request);
+
+        when(jwtUtils.parseClaims(token)).thenReturn(Jwts.claims().add("userId", 7L).add("tier", "premium").build());
+        when(chain.filter(any(ServerWebExchange.class))).thenReturn(Mono.empty());
+
+        // When
+        authenticationFilter.filter(exchange, chain).block();
+
+        // Then
+        assertEquals("7", exchange.getAttribute(AuthenticationFilter.USER_ID_ATTR));
+        assertEquals("premium", exchange.getAttribute(AuthenticationFilter.USER_TIER_ATTR));
     }
-}
 
+    @Test
+    void filter_WithRevokedToken_ShouldReturnUnauthorized() {
+        // Given
+        String token = "revoked.jwt.token";
+
+        MockServerHttpRequest request = MockServerHttpRequest
+                .get("/api/cart")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+        ServerWebExchange exchange = MockServerWebExchange.from(request);
+
+        when(revocationList.isRevoked("revoked-jti")).thenReturn(true);
+        when(jwtUtils.parseClaims(token)).thenReturn(Jwts.claims().add("userId", 1L).id("revoked-jti").build());
+
+        // When
+        Mono<Void> result = authenticationFilter.filter(exchange, chain);
+
+        // Then
+        StepVerifier.create(result)
+                .verifyComplete();
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        verify(chain, never()).filter(any());
+    }
+
+    @Test
+    void filter_WhenRejectedRepeatedly_ShouldWriteSameJsonBodyEachTime() {
+        // Given
+        MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.get("/api/cart").build());
+        MockServerWebExchange second = MockServerWebExchange.from(MockServerHttpRequest.get("/api/cart").build());
+
+        // When
+        authenticationFilter.filter(first, chain).block();
+        authenticationFilter.filter(second, chain).block();
+
+        // Then
+        String expected = "{\"success\":false,\"code\":401,\"message\":\"You don't have access to this page\"}";
+        assertEquals(expected, first.getResponse().getBodyAsString().block());
+        assertEquals(expected, second.getResponse().getBodyAsString().block());
+    }
+
+    private static Claims claims(Object userId) {
+        return Jwts.claims().add("userId", userId).build();
+    }
+}
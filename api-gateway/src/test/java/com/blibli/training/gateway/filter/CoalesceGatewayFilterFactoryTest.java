@@ -0,0 +1,175 @@
+package com.blibli.training.gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoalesceGatewayFilterFactoryTest {
+
+    private static final String PRODUCT = "/product-service/products/p1";
+
+    @Mock
+    private AuthenticationFilter authenticationFilter;
+
+    private MeterRegistry meterRegistry;
+    private CoalesceGatewayFilterFactory.Config config;
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> release = Sinks.empty();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(authenticationFilter.isPublicPath(anyString())).thenReturn(true);
+        meterRegistry = new SimpleMeterRegistry();
+        config = new CoalesceGatewayFilterFactory.Config();
+        config.setRouteId("product-service");
+    }
+
+    @Test
+    void filter_ConcurrentIdenticalGets_ShouldGoUpstreamOnce() {
+        // Given
+        List<MockServerWebExchange> exchanges = List.of(get(PRODUCT), get(PRODUCT), get(PRODUCT));
+
+        // When
+        runConcurrently(filter(), exchanges, slowUpstream(HttpStatus.NOT_FOUND, "{\"code\":404}"));
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        for (MockServerWebExchange exchange : exchanges) {
+            assertEquals(HttpStatus.NOT_FOUND, exchange.getResponse().getStatusCode());
+            assertEquals(MediaType.APPLICATION_JSON, exchange.getResponse().getHeaders().getContentType());
+            assertEquals("{\"code\":404}", exchange.getResponse().getBodyAsString().block());
+        }
+        assertEquals(2.0, meterRegistry.get("gateway.coalesce")
+                .tags("route", "product-service", "result", "follower").counter().count());
+        assertEquals(2.0, meterRegistry.get("gateway.coalesce.fanout")
+                .tags("route", "product-service").summary().totalAmount());
+    }
+
+    @Test
+    void filter_BodyOverLimit_ShouldSendWaitersUpstream() {
+        // Given
+        config.setMaxBodySize(DataSize.ofBytes(4));
+        List<MockServerWebExchange> exchanges = List.of(get(PRODUCT), get(PRODUCT));
+
+        // When
+        runConcurrently(filter(), exchanges, slowUpstream(HttpStatus.OK, "[\"p1\",\"p2\"]"));
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+        for (MockServerWebExchange exchange : exchanges) {
+            assertEquals("[\"p1\",\"p2\"]", exchange.getResponse().getBodyAsString().block());
+        }
+        assertEquals(1.0, meterRegistry.get("gateway.coalesce")
+                .tags("route", "product-service", "result", "unshared").counter().count());
+    }
+
+    @Test
+    void filter_WaitersOverLimit_ShouldGoUpstream() {
+        // Given
+        config.setMaxWaiters(1);
+        List<MockServerWebExchange> exchanges = List.of(get(PRODUCT), get(PRODUCT), get(PRODUCT));
+
+        // When
+        runConcurrently(filter(), exchanges, slowUpstream(HttpStatus.OK, "{}"));
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1.0, meterRegistry.get("gateway.coalesce")
+                .tags("route", "product-service", "result", "overflow").counter().count());
+    }
+
+    @Test
+    void filter_DifferentAccept_ShouldNotShare() {
+        // Given
+        MockServerWebExchange json = get(PRODUCT);
+        MockServerWebExchange xml = MockServerWebExchange.from(MockServerHttpRequest.get(PRODUCT)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_XML_VALUE));
+
+        // When
+        runConcurrently(filter(), List.of(json, xml), slowUpstream(HttpStatus.OK, "{}"));
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void filter_ConditionalOrRangeRequests_ShouldGoUpstreamOnTheirOwn() {
+        // Given - a plain GET in flight, then requests whose answer depends on their own headers
+        MockServerWebExchange plain = get(PRODUCT);
+        List<MockServerWebExchange> exchanges = List.of(plain,
+                withHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\""),
+                withHeader(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 21 Oct 2015 07:28:00 GMT"),
+                withHeader(HttpHeaders.RANGE, "bytes=0-1"));
+
+        // When
+        runConcurrently(filter(), exchanges, slowUpstream(HttpStatus.OK, "{}"));
+
+        // Then
+        assertEquals(4, upstreamCalls.get());
+        assertEquals(3.0, meterRegistry.get("gateway.coalesce")
+                .tags("route", "product-service", "result", "bypass").counter().count());
+        assertEquals(0.0, meterRegistry.get("gateway.coalesce")
+                .tags("route", "product-service", "result", "follower").counter().count());
+    }
+
+    private GatewayFilter filter() {
+        return new CoalesceGatewayFilterFactory(authenticationFilter, meterRegistry).apply(config);
+    }
+
+    private void runConcurrently(GatewayFilter filter, List<MockServerWebExchange> exchanges,
+                                 GatewayFilterChain upstream) {
+        List<Mono<Void>> pending = exchanges.stream()
+                .map(exchange -> filter.filter(exchange, upstream).toFuture())
+                .map(Mono::fromFuture)
+                .toList();
+        release.tryEmitEmpty();
+        Mono.when(pending).block(Duration.ofSeconds(5));
+    }
+
+    private GatewayFilterChain slowUpstream(HttpStatus status, String body) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return release.asMono().then(Mono.defer(() -> {
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(status);
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                return response.writeWith(Mono.just(response.bufferFactory()
+                        .wrap(body.getBytes(StandardCharsets.UTF_8))));
+            }));
+        };
+    }
+
+    private static MockServerWebExchange get(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+    }
+
+    private static MockServerWebExchange withHeader(String name, String value) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(PRODUCT).header(name, value));
+    }
+}
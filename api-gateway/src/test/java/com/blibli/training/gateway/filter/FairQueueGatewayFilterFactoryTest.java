@@ -0,0 +1,119 @@
+package com.blibli.training.gateway.filter;
+
+import com.blibli.training.gateway.config.FairnessProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairQueueGatewayFilterFactoryTest {
+
+    private MeterRegistry meterRegistry;
+    private GatewayFilter filter;
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> release = Sinks.empty();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        FairnessProperties fairnessProperties = new FairnessProperties();
+        FairnessProperties.Tier standard = new FairnessProperties.Tier();
+        standard.setMaxConcurrentPerUser(1);
+        standard.setMaxQueuedPerUser(1);
+        fairnessProperties.getTiers().put("standard", standard);
+
+        FairQueueGatewayFilterFactory.Config config = new FairQueueGatewayFilterFactory.Config();
+        config.setRouteId("cart-service");
+        config.setMaxQueueTime(Duration.ofMillis(50));
+        filter = new FairQueueGatewayFilterFactory(fairnessProperties, meterRegistry).apply(config);
+    }
+
+    @Test
+    void filter_UserOverQueueLimit_ShouldReturnTooManyRequests() {
+        // Given - one request running and one waiting
+        filter.filter(cart("42"), slowUpstream()).subscribe();
+        filter.filter(cart("42"), slowUpstream()).subscribe();
+
+        // When
+        MockServerWebExchange exchange = cart("42");
+        filter.filter(exchange, slowUpstream()).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertEquals("1", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1.0, meterRegistry.get("gateway.fairness.rejected")
+                .tags("route", "cart-service", "tier", "standard", "reason", "user_limit").counter().count());
+    }
+
+    @Test
+    void filter_WaitingPastMaxQueueTime_ShouldReturnTooManyRequests() {
+        // Given
+        filter.filter(cart("42"), slowUpstream()).subscribe();
+
+        // When
+        MockServerWebExchange exchange = cart("42");
+        filter.filter(exchange, slowUpstream()).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertEquals(0.0, meterRegistry.get("gateway.fairness.queued").gauge().value());
+    }
+
+    @Test
+    void filter_OtherUser_ShouldNotWaitBehindBusyUser() {
+        // Given
+        filter.filter(cart("42"), slowUpstream()).subscribe();
+        filter.filter(cart("42"), slowUpstream()).subscribe();
+
+        // When
+        MockServerWebExchange exchange = cart("7");
+        filter.filter(exchange, admitted -> Mono.empty()).block(Duration.ofSeconds(5));
+
+        // Then
+        assertNull(exchange.getResponse().getStatusCode());
+        // Admitted: the busy user's first request and this one
+        assertEquals(2, meterRegistry.get("gateway.fairness.queue")
+                .tags("route", "cart-service", "tier", "standard").timer().count());
+    }
+
+    @Test
+    void filter_WithoutUser_ShouldPassThrough() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/cart/public"));
+
+        // When
+        filter.filter(exchange, slowUpstream()).subscribe();
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0.0, meterRegistry.get("gateway.fairness.in-flight").gauge().value());
+    }
+
+    private GatewayFilterChain slowUpstream() {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return release.asMono();
+        };
+    }
+
+    private static MockServerWebExchange cart(String userId) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/cart"));
+        exchange.getAttributes().put(AuthenticationFilter.USER_ID_ATTR, userId);
+        return exchange;
+    }
+}
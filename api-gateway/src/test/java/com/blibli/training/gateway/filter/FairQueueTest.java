@@ -0,0 +1,164 @@
+package com.blibli.training.gateway.filter;
+
+import com.blibli.training.gateway.config.FairnessProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairQueueTest {
+
+    private static final FairnessProperties.Tier STANDARD = tier(1, 8, 16);
+
+    @Test
+    void acquire_HeavyUserQueued_ShouldServeLightUserBeforeHeavyUsersBacklog() {
+        // Given - limit 1, taken; the heavy user queues three requests before the light user's one
+        FairQueue queue = new FairQueue(new AdaptiveLimit(1, 1, 1, 2.0), 100);
+        FairQueue.Permit running = queue.acquire("heavy", STANDARD).block();
+        List<String> order = new ArrayList<>();
+        List<FairQueue.Permit> granted = new ArrayList<>();
+        for (String user : List.of("heavy", "heavy", "heavy", "light")) {
+            queue.acquire(user, STANDARD).subscribe(permit -> {
+                order.add(user);
+                granted.add(permit);
+            });
+        }
+
+        // When
+        running.release(1_000, false);
+        granted.get(0).release(1_000, false);
+
+        // Then
+        assertEquals(2, order.size());
+        assertTrue(order.contains("light"));
+    }
+
+    @Test
+    void acquire_PremiumUser_ShouldGetMoreSlotsThanStandard() {
+        // Given
+        FairQueue queue = new FairQueue(new AdaptiveLimit(1, 1, 1, 2.0), 100);
+        FairQueue.Permit running = queue.acquire("someone", STANDARD).block();
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            queue.acquire("standard", STANDARD).subscribe(permit -> {
+                order.add("standard");
+                permit.release(1_000, false);
+            });
+            queue.acquire("premium", tier(4, 8, 16)).subscribe(permit -> {
+                order.add("premium");
+                permit.release(1_000, false);
+            });
+        }
+
+        // When
+        running.release(1_000, false);
+
+        // Then - weight 4 gets four slots for each standard one
+        assertEquals(List.of("premium", "premium", "premium"), order.subList(0, 3));
+        assertEquals(1, order.subList(0, 5).stream().filter("standard"::equals).count());
+    }
+
+    @Test
+    void acquire_UserAtConcurrencyLimit_ShouldWaitWhileOthersRun() {
+        // Given
+        FairQueue queue = new FairQueue(new AdaptiveLimit(10, 10, 10, 2.0), 100);
+        FairnessProperties.Tier oneAtATime = tier(1, 1, 1);
+        FairQueue.Permit first = queue.acquire("user", oneAtATime).block();
+        AtomicReference<FairQueue.Permit> second = new AtomicReference<>();
+        queue.acquire("user", oneAtATime).subscribe(second::set);
+
+        // When & Then
+        assertNotNull(queue.acquire("other", oneAtATime).block());
+        assertNull(second.get());
+        assertThrows(FairQueue.Rejected.class, () -> queue.acquire("user", oneAtATime).block());
+        first.release(1_000, false);
+        assertNotNull(second.get());
+    }
+
+    @Test
+    void acquire_QueueFull_ShouldReject() {
+        // Given
+        FairQueue queue = new FairQueue(new AdaptiveLimit(1, 1, 1, 2.0), 1);
+        queue.acquire("a", STANDARD).block();
+        queue.acquire("b", STANDARD).subscribe();
+
+        // When
+        FairQueue.Rejected rejected = assertThrows(FairQueue.Rejected.class,
+                () -> queue.acquire("c", STANDARD).block());
+
+        // Then
+        assertEquals("queue_full", rejected.reason());
+    }
+
+    @Test
+    void acquire_CancelledWhileQueued_ShouldGiveUpPlace() {
+        // Given
+        FairQueue queue = new FairQueue(new AdaptiveLimit(1, 1, 1, 2.0), 100);
+        FairQueue.Permit running = queue.acquire("a", STANDARD).block();
+        Disposable waiting = queue.acquire("b", STANDARD).subscribe();
+        AtomicReference<FairQueue.Permit> next = new AtomicReference<>();
+        queue.acquire("c", STANDARD).subscribe(next::set);
+
+        // When
+        waiting.dispose();
+        running.release(1_000, false);
+
+        // Then
+        assertNotNull(next.get());
+        assertEquals(0, queue.queued());
+        assertEquals(1, queue.inFlight());
+    }
+
+    @Test
+    void release_Twice_ShouldFreeOneSlot() {
+        // Given
+        FairQueue queue = new FairQueue(new AdaptiveLimit(2, 2, 2, 2.0), 100);
+        FairQueue.Permit permit = queue.acquire("a", STANDARD).block();
+        queue.acquire("b", STANDARD).block();
+
+        // When
+        permit.release(1_000, false);
+        permit.cancel();
+
+        // Then
+        assertEquals(1, queue.inFlight());
+        assertNotNull(queue.acquire("c", STANDARD).block());
+    }
+
+    @Test
+    void release_GrantedRequestsFinishingImmediately_ShouldServeWholeQueueWithoutRecursing() {
+        // Given - e.g. an open circuit breaker answering each admitted request on the spot
+        int waiting = 50_000;
+        FairQueue queue = new FairQueue(new AdaptiveLimit(1, 1, 1, 2.0), waiting);
+        FairnessProperties.Tier unbounded = tier(1, 1, waiting);
+        FairQueue.Permit running = queue.acquire("user", unbounded).block();
+        AtomicInteger served = new AtomicInteger();
+        for (int i = 0; i < waiting; i++) {
+            queue.acquire("user", unbounded).subscribe(permit -> {
+                served.incrementAndGet();
+                permit.release(1_000, false);
+            });
+        }
+
+        // When
+        running.release(1_000, false);
+
+        // Then
+        assertEquals(waiting, served.get());
+        assertEquals(0, queue.inFlight());
+        assertEquals(0, queue.queued());
+    }
+
+    private static FairnessProperties.Tier tier(int weight, int maxConcurrent, int maxQueued) {
+        FairnessProperties.Tier tier = new FairnessProperties.Tier();
+        tier.setWeight(weight);
+        tier.setMaxConcurrentPerUser(maxConcurrent);
+        tier.setMaxQueuedPerUser(maxQueued);
+        return tier;
+    }
+}
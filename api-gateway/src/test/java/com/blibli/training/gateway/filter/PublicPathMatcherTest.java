@@ -0,0 +1,80 @@
+package com.blibli.training.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicPathMatcherTest {
+
+    @Test
+    void matches_LiteralPath_ShouldMatchItselfAndChildSegmentsOnly() {
+        // Given
+        PublicPathMatcher matcher = PublicPathMatcher.compile(List.of("/member/hello", "/product-service/products/"));
+
+        // Then
+        assertTrue(matcher.matches("/member/hello"));
+        assertTrue(matcher.matches("/member/hello/world"));
+        assertFalse(matcher.matches("/member/hello-protected"));
+        assertTrue(matcher.matches("/product-service/products/123"));
+        assertFalse(matcher.matches("/member"));
+    }
+
+    @Test
+    void matches_LiteralPath_ShouldMatchExactPathIgnoringCase() {
+        // Given
+        PublicPathMatcher matcher = PublicPathMatcher.compile(List.of("/public"));
+
+        // Then
+        assertTrue(matcher.matches("/PUBLIC"));
+        assertFalse(matcher.matches("/PUBLIC/products"));
+    }
+
+    @Test
+    void matches_DoubleStarSuffix_ShouldMatchBaseAndEverythingBelow() {
+        // Given
+        PublicPathMatcher matcher = PublicPathMatcher.compile(List.of("/actuator/**"));
+
+        // Then
+        assertTrue(matcher.matches("/actuator"));
+        assertTrue(matcher.matches("/actuator/metrics/jvm.memory.used"));
+        assertFalse(matcher.matches("/actuatorx"));
+    }
+
+    @Test
+    void matches_GlobPattern_ShouldUsePathPatternSemantics() {
+        // Given
+        PublicPathMatcher matcher = PublicPathMatcher.compile(List.of("/product-service/products/*/reviews", "/docs/*.html"));
+
+        // Then
+        assertTrue(matcher.matches("/product-service/products/123/reviews"));
+        assertFalse(matcher.matches("/product-service/products/123/reviews/1"));
+        assertFalse(matcher.matches("/product-service/products/123"));
+        assertTrue(matcher.matches("/docs/index.html"));
+    }
+
+    @Test
+    void matches_RootDoubleStar_ShouldMatchEverything() {
+        // Given
+        PublicPathMatcher matcher = PublicPathMatcher.compile(List.of("/**"));
+
+        // Then
+        assertTrue(matcher.matches("/"));
+        assertTrue(matcher.matches("/cart/items"));
+    }
+
+    @Test
+    void isCompiledFrom_ShouldDetectReboundOrModifiedList() {
+        // Given
+        List<String> paths = new ArrayList<>(List.of("/public"));
+        PublicPathMatcher matcher = PublicPathMatcher.compile(paths);
+
+        // Then
+        assertTrue(matcher.isCompiledFrom(paths));
+        assertFalse(matcher.isCompiledFrom(new ArrayList<>(paths)));
+        paths.add("/other");
+        assertFalse(matcher.isCompiledFrom(paths));
+    }
+}
@@ -0,0 +1,190 @@
+package com.blibli.training.gateway.filter;
+
+import com.blibli.training.gateway.config.AuthProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Mock
+    private GatewayFilterChain chain;
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        AuthProperties.Bucket perIp = new AuthProperties.Bucket();
+        perIp.setCapacity(3);
+        perIp.setRefillPerSecond(0.01);
+        AuthProperties.Bucket perEmail = new AuthProperties.Bucket();
+        perEmail.setCapacity(2);
+        perEmail.setRefillPerSecond(0.01);
+
+        AuthProperties.RateLimit login = new AuthProperties.RateLimit();
+        login.setPath("/member/login");
+        login.setPerIp(perIp);
+        login.setPerEmail(perEmail);
+
+        AuthProperties authProperties = new AuthProperties();
+        authProperties.setRateLimits(List.of(login));
+        rateLimitFilter = new RateLimitFilter(authProperties);
+
+        lenient().when(chain.filter(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void filter_WithUnlimitedPath_ShouldPassThrough() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            ServerWebExchange exchange = get("/product-service/products", "10.0.0.1");
+
+            // When
+            StepVerifier.create(rateLimitFilter.filter(exchange, chain)).verifyComplete();
+
+            // Then
+            assertNull(exchange.getResponse().getStatusCode());
+        }
+        verify(chain, times(10)).filter(any());
+    }
+
+    @Test
+    void filter_WhenIpExceedsLimit_ShouldReturn429WithRetryAfter() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(rateLimitFilter.filter(login("user" + i + "@example.com", "10.0.0.1"), chain))
+                    .verifyComplete();
+        }
+        ServerWebExchange exchange = login("other@example.com", "10.0.0.1");
+
+        // When
+        StepVerifier.create(rateLimitFilter.filter(exchange, chain)).verifyComplete();
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertNotNull(exchange.getResponse().getHeaders().getFirst("Retry-After"));
+        assertTrue(Long.parseLong(exchange.getResponse().getHeaders().getFirst("Retry-After")) >= 1);
+        verify(chain, times(3)).filter(any());
+    }
+
+    @Test
+    void filter_WhenEmailExceedsLimit_ShouldReturn429FromAnyIp() {
+        // Given - same account attacked from different addresses
+        StepVerifier.create(rateLimitFilter.filter(login("victim@example.com", "10.0.0.1"), chain)).verifyComplete();
+        StepVerifier.create(rateLimitFilter.filter(login("Victim@Example.com", "10.0.0.2"), chain)).verifyComplete();
+        ServerWebExchange exchange = login("victim@example.com", "10.0.0.3");
+
+        // When
+        StepVerifier.create(rateLimitFilter.filter(exchange, chain)).verifyComplete();
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        verify(chain, times(2)).filter(any());
+    }
+
+    @Test
+    void filter_WithinLimit_ShouldForwardBodyDownstream() {
+        // Given
+        ServerWebExchange exchange = login("user@example.com", "10.0.0.1");
+        when(chain.filter(any())).thenAnswer(invocation -> {
+            ServerWebExchange forwarded = invocation.getArgument(0);
+            return forwarded.getRequest().getBody()
+                    .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                    .reduce(String::concat)
+                    .doOnNext(body -> assertTrue(body.contains("user@example.com")))
+                    .then();
+        });
+
+        // When & Then
+        StepVerifier.create(rateLimitFilter.filter(exchange, chain)).verifyComplete();
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void limiter_WithMoreKeysThanCap_ShouldStayBounded() {
+        // Given - credential stuffing with a new email on every request
+        AuthProperties.Bucket spec = bucket(5, 0.01);
+        long now = 0;
+        RateLimitFilter.Limiter limiter = new RateLimitFilter.Limiter(spec, 1_000, now);
+
+        // When
+        for (int i = 0; i < 50_000; i++) {
+            limiter.tryConsume("user" + i + "@example.com", now + i);
+        }
+
+        // Then
+        assertTrue(limiter.trackedKeys() <= 1_000, "tracked keys: " + limiter.trackedKeys());
+    }
+
+    @Test
+    void limiter_KeyUsedAgainAfterRotation_ShouldKeepItsLimit() {
+        // Given - an email with its bucket drained
+        AuthProperties.Bucket spec = bucket(2, 0.01);
+        RateLimitFilter.Limiter limiter = new RateLimitFilter.Limiter(spec, 100, 0);
+        limiter.tryConsume("victim@example.com", 0);
+        limiter.tryConsume("victim@example.com", 0);
+
+        // When - enough other keys to start a new generation
+        for (int i = 0; i < 50; i++) {
+            limiter.tryConsume("other" + i + "@example.com", 0);
+        }
+
+        // Then
+        assertTrue(limiter.tryConsume("victim@example.com", 0) > 0);
+    }
+
+    @Test
+    void limiter_IdleLongerThanRefill_ShouldForgetOldKeys() {
+        // Given - refills completely in 2s
+        RateLimitFilter.Limiter limiter = new RateLimitFilter.Limiter(bucket(2, 1.0), 100, 0);
+        limiter.tryConsume("a@example.com", 0);
+
+        // When
+        limiter.tryConsume("b@example.com", 3 * SECOND);
+        limiter.tryConsume("c@example.com", 6 * SECOND);
+
+        // Then
+        assertEquals(2, limiter.trackedKeys());
+    }
+
+    private static ServerWebExchange login(String email, String ip) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/member/login")
+                .remoteAddress(new InetSocketAddress(ip, 40000))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"email\":\"" + email + "\",\"password\":\"secret\"}"));
+    }
+
+    private static ServerWebExchange get(String path, String ip) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path)
+                .remoteAddress(new InetSocketAddress(ip, 40000))
+                .build());
+    }
+
+    private static AuthProperties.Bucket bucket(int capacity, double refillPerSecond) {
+        AuthProperties.Bucket bucket = new AuthProperties.Bucket();
+        bucket.setCapacity(capacity);
+        bucket.setRefillPerSecond(refillPerSecond);
+        return bucket;
+    }
+}
@@ -0,0 +1,244 @@
+package com.blibli.training.gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String PRODUCTS = "/product-service/products?page=0";
+
+    @Mock
+    private AuthenticationFilter authenticationFilter;
+
+    private MeterRegistry meterRegistry;
+    private GatewayFilter filter;
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final List<HttpHeaders> upstreamRequests = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(authenticationFilter.isPublicPath(anyString())).thenReturn(true);
+        meterRegistry = new SimpleMeterRegistry();
+
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setRouteId("product-service");
+        config.setDefaultTtl(Duration.ofSeconds(10));
+        ServerProperties serverProperties = new ServerProperties();
+        serverProperties.getCompression().setEnabled(true);
+        serverProperties.getCompression().setMinResponseSize(DataSize.ofKilobytes(1));
+        filter = new ResponseCacheGatewayFilterFactory(authenticationFilter, meterRegistry, serverProperties)
+                .apply(config);
+    }
+
+    @Test
+    void filter_RepeatedGet_ShouldServeSecondFromCache() {
+        // Given
+        GatewayFilterChain upstream = upstream(HttpStatus.OK, null, "[\"p1\"]");
+        filter.filter(get(PRODUCTS), upstream).block();
+
+        // When
+        MockServerWebExchange exchange = get(PRODUCTS);
+        filter.filter(exchange, upstream).block();
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("HIT", exchange.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS));
+        assertEquals(MediaType.APPLICATION_JSON, exchange.getResponse().getHeaders().getContentType());
+        assertEquals("[\"p1\"]", exchange.getResponse().getBodyAsString().block());
+        assertEquals(1.0, meterRegistry.get("gateway.response.cache")
+                .tags("route", "product-service", "result", "hit").counter().count());
+    }
+
+    @Test
+    void filter_NoStoreResponse_ShouldNotCache() {
+        // Given
+        GatewayFilterChain upstream = upstream(HttpStatus.OK, "no-store", "[]");
+
+        // When
+        filter.filter(get(PRODUCTS), upstream).block();
+        filter.filter(get(PRODUCTS), upstream).block();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void filter_StaleEntryWithEtag_ShouldRevalidateAndServeCachedBody() {
+        // Given
+        filter.filter(get(PRODUCTS), upstream(HttpStatus.OK, "max-age=0", "[\"p1\"]")).block();
+
+        // When
+        MockServerWebExchange exchange = get(PRODUCTS);
+        filter.filter(exchange, upstream(HttpStatus.NOT_MODIFIED, "max-age=0", "")).block();
+
+        // Then
+        assertEquals("\"v1\"", upstreamRequests.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("REVALIDATED", exchange.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS));
+        assertEquals("[\"p1\"]", exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void filter_ClientEtagMatches_ShouldReturnNotModified() {
+        // Given
+        GatewayFilterChain upstream = upstream(HttpStatus.OK, null, "[\"p1\"]");
+        filter.filter(get(PRODUCTS), upstream).block();
+
+        // When
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(PRODUCTS)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""));
+        filter.filter(exchange, upstream).block();
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, exchange.getResponse().getStatusCode());
+        assertEquals("", exchange.getResponse().getBodyAsString().defaultIfEmpty("").block());
+    }
+
+    @Test
+    void filter_ConcurrentMisses_ShouldGoUpstreamOnce() {
+        // Given
+        Sinks.Empty<Void> release = Sinks.empty();
+        GatewayFilterChain slowUpstream = exchange -> release.asMono()
+                .then(upstream(HttpStatus.OK, null, "[\"p1\"]").filter(exchange));
+        List<MockServerWebExchange> exchanges = List.of(get(PRODUCTS), get(PRODUCTS), get(PRODUCTS));
+
+        // When
+        List<Mono<Void>> pending = exchanges.stream()
+                .map(exchange -> filter.filter(exchange, slowUpstream).toFuture())
+                .map(Mono::fromFuture)
+                .toList();
+        release.tryEmitEmpty();
+        Mono.when(pending).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        for (MockServerWebExchange exchange : exchanges) {
+            assertEquals("[\"p1\"]", exchange.getResponse().getBodyAsString().block());
+        }
+        assertEquals(2.0, meterRegistry.get("gateway.response.cache")
+                .tags("route", "product-service", "result", "coalesced").counter().count());
+    }
+
+    @Test
+    void filter_VaryAddedByGatewayCors_ShouldStillCache() {
+        // Given
+        GatewayFilterChain upstream = upstream(HttpStatus.OK, null, "[\"p1\"]");
+        MockServerWebExchange first = get(PRODUCTS);
+        first.getResponse().getHeaders().setVary(List.of(HttpHeaders.ORIGIN));
+
+        // When
+        filter.filter(first, upstream).block();
+        filter.filter(get(PRODUCTS), upstream).block();
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void filter_LargeHitAcceptingGzip_ShouldServeStoredGzip() throws IOException {
+        // Given
+        String body = "[" + "{\"name\":\"product\"},".repeat(100) + "{}]";
+        GatewayFilterChain upstream = upstream(HttpStatus.OK, null, body);
+        filter.filter(get(PRODUCTS), upstream).block();
+
+        // When
+        MockServerWebExchange gzipped = MockServerWebExchange.from(MockServerHttpRequest.get(PRODUCTS)
+                .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"));
+        filter.filter(gzipped, upstream).block();
+        MockServerWebExchange identity = MockServerWebExchange.from(MockServerHttpRequest.get(PRODUCTS)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"));
+        filter.filter(identity, upstream).block();
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        HttpHeaders headers = gzipped.getResponse().getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING));
+        byte[] compressed = gzipped.getResponse().getBody()
+                .reduce(new byte[0], (bytes, buffer) -> {
+                    byte[] joined = new byte[bytes.length + buffer.readableByteCount()];
+                    System.arraycopy(bytes, 0, joined, 0, bytes.length);
+                    buffer.read(joined, bytes.length, buffer.readableByteCount());
+                    return joined;
+                })
+                .block();
+        assertTrue(compressed.length < body.length());
+        assertEquals(compressed.length, headers.getContentLength());
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(body, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertNull(identity.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(body, identity.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void filter_PrivatePath_ShouldBypassCache() {
+        // Given
+        when(authenticationFilter.isPublicPath("/product-service/admin")).thenReturn(false);
+        GatewayFilterChain upstream = upstream(HttpStatus.OK, null, "{}");
+
+        // When
+        filter.filter(get("/product-service/admin"), upstream).block();
+        filter.filter(get("/product-service/admin"), upstream).block();
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private GatewayFilterChain upstream(HttpStatus status, String cacheControl, String body) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            upstreamRequests.add(exchange.getRequest().getHeaders());
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setETag("\"v1\"");
+            if (cacheControl != null) {
+                response.getHeaders().setCacheControl(cacheControl);
+            }
+            return response.writeWith(Mono.just(response.bufferFactory()
+                    .wrap(body.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static MockServerWebExchange get(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+    }
+}
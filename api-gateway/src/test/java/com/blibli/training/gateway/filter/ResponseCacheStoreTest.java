@@ -0,0 +1,50 @@
+package com.blibli.training.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheStoreTest {
+
+    @Test
+    void put_OverBudget_ShouldEvictLeastRecentlyRead() {
+        // Given
+        ResponseCacheStore store = new ResponseCacheStore(300);
+        store.put("/a", entry(100));
+        store.put("/b", entry(100));
+        store.put("/c", entry(100));
+        store.get("/a");
+
+        // When
+        store.put("/d", entry(100));
+
+        // Then
+        assertNotNull(store.get("/a"));
+        assertNull(store.get("/b"));
+        assertNotNull(store.get("/d"));
+        assertTrue(store.usedBytes() <= 300);
+    }
+
+    @Test
+    void entry_Body_ShouldBeDirectAndReadOnly() {
+        // Given
+        ResponseCacheStore.Entry entry = entry(16);
+
+        // When
+        ByteBuffer first = entry.body();
+        first.get(new byte[16]);
+        ByteBuffer second = entry.body();
+
+        // Then
+        assertTrue(second.isDirect());
+        assertTrue(second.isReadOnly());
+        assertEquals(16, second.remaining());
+    }
+
+    private static ResponseCacheStore.Entry entry(int size) {
+        return ResponseCacheStore.Entry.of(new byte[size], new HttpHeaders(), System.currentTimeMillis(), 10_000, false);
+    }
+}
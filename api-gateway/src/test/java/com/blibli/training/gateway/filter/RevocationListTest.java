@@ -0,0 +1,108 @@
+package com.blibli.training.gateway.filter;
+
+import com.blibli.training.gateway.config.AuthProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationListTest {
+
+    private AuthProperties authProperties;
+    private List<ClientRequest> requests;
+    private String responseBody;
+
+    @BeforeEach
+    void setUp() {
+        authProperties = new AuthProperties();
+        requests = new ArrayList<>();
+    }
+
+    private RevocationList revocationList() {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(responseBody)
+                    .build());
+        });
+        return new RevocationList(builder, authProperties);
+    }
+
+    @Test
+    void poll_ShouldAddRevocationsAndAdvanceCursor() {
+        // Given
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        responseBody = "{\"success\":true,\"code\":200,\"data\":{\"serverTime\":100000,"
+                + "\"revocations\":[{\"jti\":\"jti-1\",\"expiresAt\":" + expiresAt + "}]}}";
+        RevocationList revocationList = revocationList();
+
+        // When
+        revocationList.poll();
+        revocationList.poll();
+
+        // Then
+        assertTrue(revocationList.isRevoked("jti-1"));
+        assertFalse(revocationList.isRevoked("jti-2"));
+        assertEquals("since=0", requests.get(0).url().getQuery());
+        assertEquals("since=70000", requests.get(1).url().getQuery());
+    }
+
+    @Test
+    void poll_WhenMemberUnavailable_ShouldKeepExistingEntries() {
+        // Given
+        RevocationList revocationList = new RevocationList(WebClient.builder().exchangeFunction(
+                request -> Mono.error(new IllegalStateException("Connection refused"))), authProperties);
+        revocationList.revoke("jti-1", System.currentTimeMillis() + 60_000);
+
+        // When
+        revocationList.poll();
+
+        // Then
+        assertTrue(revocationList.isRevoked("jti-1"));
+    }
+
+    @Test
+    void prune_ShouldDropExpiredEntries() {
+        // Given
+        RevocationList revocationList = revocationList();
+        long now = System.currentTimeMillis();
+        revocationList.revoke("expired", now - 1);
+        revocationList.revoke("live", now + 60_000);
+
+        // When
+        revocationList.prune(now);
+
+        // Then
+        assertEquals(1, revocationList.size());
+        assertFalse(revocationList.isRevoked("expired"));
+        assertTrue(revocationList.isRevoked("live"));
+    }
+
+    @Test
+    void isRevoked_WithMillionEntries_ShouldAnswerFromMemory() {
+        // Given
+        RevocationList revocationList = revocationList();
+        long expiresAt = System.currentTimeMillis() + 600_000;
+        for (int i = 0; i < 1_000_000; i++) {
+            revocationList.revoke("jti-" + i, expiresAt);
+        }
+
+        // When & Then
+        assertEquals(1_000_000, revocationList.size());
+        assertTrue(revocationList.isRevoked("jti-999999"));
+        assertFalse(revocationList.isRevoked("jti-1000000"));
+        assertFalse(revocationList.isRevoked(null));
+        assertTrue(requests.isEmpty());
+    }
+}
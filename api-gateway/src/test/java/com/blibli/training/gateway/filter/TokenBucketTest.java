@@ -0,0 +1,69 @@
+package com.blibli.training.gateway.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryConsume_ShouldAllowBurstUpToCapacity() {
+        // Given
+        TokenBucket bucket = new TokenBucket(3, 1);
+        long now = 1_000 * SECOND;
+
+        // When & Then
+        assertEquals(0, bucket.tryConsume(now));
+        assertEquals(0, bucket.tryConsume(now));
+        assertEquals(0, bucket.tryConsume(now));
+        assertEquals(SECOND, bucket.tryConsume(now));
+    }
+
+    @Test
+    void tryConsume_ShouldRefillOverTime() {
+        // Given
+        TokenBucket bucket = new TokenBucket(2, 2);
+        long now = 1_000 * SECOND;
+        bucket.tryConsume(now);
+        bucket.tryConsume(now);
+        assertTrue(bucket.tryConsume(now) > 0);
+
+        // When & Then - one token every half second
+        assertEquals(0, bucket.tryConsume(now + SECOND / 2));
+        assertTrue(bucket.tryConsume(now + SECOND / 2) > 0);
+        assertFalse(bucket.isFull(now + SECOND / 2));
+        assertTrue(bucket.isFull(now + 2 * SECOND));
+    }
+
+    @Test
+    void tryConsume_WithConcurrentCallers_ShouldNeverExceedCapacity() throws Exception {
+        // Given
+        TokenBucket bucket = new TokenBucket(100, 0.001);
+        long now = 1_000 * SECOND;
+        AtomicInteger allowed = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+
+        // When
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1_000; j++) {
+                    if (bucket.tryConsume(now) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertEquals(100, allowed.get());
+    }
+}
@@ -0,0 +1,89 @@
+package com.blibli.training.gateway.loadbalancer;
+
+import com.blibli.training.gateway.config.OutlierDetectionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LeastOutstandingLoadBalancerTest {
+
+    private static final ServiceInstance FIRST = instance("product-1", 8082);
+    private static final ServiceInstance SECOND = instance("product-2", 8092);
+
+    private UpstreamInstances upstreamInstances;
+    private LeastOutstandingLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        upstreamInstances = new UpstreamInstances(new OutlierDetectionProperties(), new SimpleMeterRegistry());
+        ServiceInstanceListSupplier supplier = mock(ServiceInstanceListSupplier.class);
+        when(supplier.get(any())).thenReturn(Flux.just(List.of(FIRST, SECOND)));
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ServiceInstanceListSupplier> supplierProvider = mock(ObjectProvider.class);
+        when(supplierProvider.getIfAvailable(any())).thenReturn(supplier);
+        loadBalancer = new LeastOutstandingLoadBalancer(supplierProvider, upstreamInstances);
+    }
+
+    @Test
+    void choose_TwoInstances_ShouldPickFewerOutstanding() {
+        // Given
+        upstreamInstances.get(FIRST).started();
+
+        // When & Then - with two instances both are always compared
+        for (int i = 0; i < 20; i++) {
+            Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>()).block();
+            assertEquals(SECOND, response.getServer());
+        }
+    }
+
+    @Test
+    void choose_EjectedInstance_ShouldBeSkipped() {
+        // Given
+        long now = System.nanoTime();
+        UpstreamInstances.Instance first = upstreamInstances.get(FIRST);
+        for (int i = 0; i < new OutlierDetectionProperties().getConsecutiveFailures(); i++) {
+            first.started();
+            first.failed(now);
+        }
+        upstreamInstances.get(SECOND).started();
+
+        // When
+        ServiceInstance chosen = loadBalancer.choose(List.of(FIRST, SECOND), now);
+
+        // Then
+        assertEquals(SECOND, chosen);
+    }
+
+    @Test
+    void choose_AllEjected_ShouldStillPickOne() {
+        // Given
+        long now = System.nanoTime();
+        for (ServiceInstance instance : List.of(FIRST, SECOND)) {
+            UpstreamInstances.Instance stats = upstreamInstances.get(instance);
+            for (int i = 0; i < new OutlierDetectionProperties().getConsecutiveFailures(); i++) {
+                stats.started();
+                stats.failed(now);
+            }
+        }
+
+        // When & Then
+        assertNotNull(loadBalancer.choose(List.of(FIRST, SECOND), now));
+        assertNull(loadBalancer.choose(List.of(), now));
+    }
+
+    private static ServiceInstance instance(String id, int port) {
+        return new DefaultServiceInstance(id, "product-service", "localhost", port, false);
+    }
+}
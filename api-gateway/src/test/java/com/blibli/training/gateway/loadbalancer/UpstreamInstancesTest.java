@@ -0,0 +1,138 @@
+package com.blibli.training.gateway.loadbalancer;
+
+import com.blibli.training.gateway.config.OutlierDetectionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamInstancesTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private UpstreamInstances.Instance instance;
+
+    @BeforeEach
+    void setUp() {
+        OutlierDetectionProperties properties = new OutlierDetectionProperties();
+        properties.setConsecutiveFailures(3);
+        properties.setBaseEjectionTime(Duration.ofSeconds(10));
+        properties.setMaxEjectionTime(Duration.ofSeconds(15));
+        UpstreamInstances upstreamInstances = new UpstreamInstances(properties, new SimpleMeterRegistry());
+        instance = upstreamInstances.get(
+                new DefaultServiceInstance("product-1", "product-service", "localhost", 8082, false));
+    }
+
+    @Test
+    void failed_ConsecutiveFailures_ShouldEjectForBaseTime() {
+        // Given
+        long now = 1_000 * SECOND;
+        fail(2, now);
+        assertFalse(instance.isEjected(now));
+
+        // When
+        fail(1, now);
+
+        // Then
+        assertTrue(instance.isEjected(now + 9 * SECOND));
+        assertFalse(instance.isEjected(now + 10 * SECOND));
+        assertEquals(0, instance.outstanding());
+    }
+
+    @Test
+    void failed_EjectedAgainWithoutSuccess_ShouldEjectLongerUpToMax() {
+        // Given
+        long now = 1_000 * SECOND;
+        fail(3, now);
+
+        // When
+        long later = now + 10 * SECOND;
+        fail(3, later);
+
+        // Then - twice the base time, capped at 15s
+        assertTrue(instance.isEjected(later + 14 * SECOND));
+        assertFalse(instance.isEjected(later + 15 * SECOND));
+    }
+
+    @Test
+    void failed_RepeatedEjections_ShouldDoubleEjectionTimeUpToMax() {
+        // Given
+        OutlierDetectionProperties properties = new OutlierDetectionProperties();
+        properties.setConsecutiveFailures(3);
+        properties.setBaseEjectionTime(Duration.ofSeconds(10));
+        properties.setMaxEjectionTime(Duration.ofSeconds(100));
+        instance = new UpstreamInstances(properties, new SimpleMeterRegistry()).get(
+                new DefaultServiceInstance("product-1", "product-service", "localhost", 8082, false));
+        long now = 1_000 * SECOND;
+
+        // When & Then - each ejection starts when the previous one ends
+        for (long seconds : new long[]{10, 20, 40, 80, 100, 100}) {
+            fail(3, now);
+            assertTrue(instance.isEjected(now + (seconds - 1) * SECOND), "ejected for " + seconds + "s");
+            assertFalse(instance.isEjected(now + seconds * SECOND), "ejected for " + seconds + "s");
+            now += seconds * SECOND;
+        }
+    }
+
+    @Test
+    void succeeded_AfterEjection_ShouldStartAgainFromBaseTime() {
+        // Given
+        long now = 1_000 * SECOND;
+        fail(3, now);
+        fail(3, now + 10 * SECOND);
+
+        // When
+        long later = now + 30 * SECOND;
+        instance.started();
+        instance.succeeded(later);
+        fail(3, later);
+
+        // Then
+        assertTrue(instance.isEjected(later + 9 * SECOND));
+        assertFalse(instance.isEjected(later + 10 * SECOND));
+    }
+
+    @Test
+    void succeeded_BetweenFailures_ShouldResetCount() {
+        // Given
+        long now = 1_000 * SECOND;
+        fail(2, now);
+
+        // When
+        instance.started();
+        instance.succeeded(now);
+        fail(2, now);
+
+        // Then
+        assertFalse(instance.isEjected(now));
+    }
+
+    @Test
+    void cancelled_ShouldOnlyReleaseOutstanding() {
+        // Given
+        long now = 1_000 * SECOND;
+        fail(2, now);
+        instance.started();
+        assertEquals(1, instance.outstanding());
+
+        // When
+        instance.cancelled();
+        fail(1, now);
+
+        // Then
+        assertEquals(0, instance.outstanding());
+        assertTrue(instance.isEjected(now));
+    }
+
+    private void fail(int times, long now) {
+        for (int i = 0; i < times; i++) {
+            instance.started();
+            instance.failed(now);
+        }
+    }
+}
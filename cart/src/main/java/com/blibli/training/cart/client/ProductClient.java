@@ -0,0 +1,16 @@
+package com.blibli.training.cart.client;
+
+import com.blibli.training.cart.dto.ProductSnapshot;
+import com.blibli.training.framework.dto.BaseResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+@FeignClient(name = "product-service", url = "${cart.product-catalog.url}")
+public interface ProductClient {
+
+    @PostMapping("/products/batch")
+    BaseResponse<List<ProductSnapshot>> getProductsByIds(@RequestBody List<String> ids);
+}
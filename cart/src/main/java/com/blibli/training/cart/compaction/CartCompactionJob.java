@@ -0,0 +1,115 @@
+package com.blibli.training.cart.compaction;
+
+import com.blibli.training.cart.config.CartCompactionProperties;
+import com.blibli.training.cart.store.WriteBehindCartStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Deletes carts that have not been modified within the configured TTL.
+ * <p>
+ * Work is done in small batches, each in its own short transaction. Candidate rows are claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, so several instances can run the job at the same time without
+ * blocking each other or a user who is writing to their cart.
+ * <p>
+ * In write-behind mode a cart that is read often but not changed stays cached however old its row is,
+ * and its next change would write the purged cart back. Each batch therefore returns the purged users,
+ * and the store forgets them once the batch has committed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "cart.compaction", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CartCompactionJob {
+
+    static final String PURGE_BATCH_SQL = """
+            WITH expired AS (
+                SELECT id FROM carts WHERE updated_at < ? ORDER BY updated_at LIMIT ? FOR UPDATE SKIP LOCKED
+            ), purged_items AS (
+                DELETE FROM cart_items WHERE cart_id IN (SELECT id FROM expired) RETURNING 1
+            ), purged_carts AS (
+                DELETE FROM carts WHERE id IN (SELECT id FROM expired) RETURNING user_id
+            )
+            SELECT (SELECT COUNT(*) FROM purged_items) AS items, ARRAY(SELECT user_id FROM purged_carts) AS user_ids
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CartCompactionProperties properties;
+    private final ObjectProvider<WriteBehindCartStore> cartStore;
+    private final Counter purgedCarts;
+    private final Counter purgedItems;
+    private final Timer runDuration;
+
+    public CartCompactionJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             CartCompactionProperties properties, ObjectProvider<WriteBehindCartStore> cartStore,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.cartStore = cartStore;
+        this.purgedCarts = Counter.builder("cart.compaction.purged")
+                .tag("table", "carts")
+                .description("Rows deleted by cart compaction")
+                .register(meterRegistry);
+        this.purgedItems = Counter.builder("cart.compaction.purged")
+                .tag("table", "cart_items")
+                .description("Rows deleted by cart compaction")
+                .register(meterRegistry);
+        this.runDuration = Timer.builder("cart.compaction.duration")
+                .description("Duration of a cart compaction run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.compaction.interval:PT1H}",
+            initialDelayString = "${cart.compaction.initial-delay:PT5M}")
+    public void run() {
+        Timer.Sample sample = Timer.start();
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(properties.getTtl()));
+        long carts = 0;
+        long items = 0;
+        try {
+            for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+                PurgedBatch purged = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+                        PURGE_BATCH_SQL, CartCompactionJob::mapBatch, cutoff, properties.getBatchSize()));
+                WriteBehindCartStore store = cartStore.getIfAvailable();
+                if (store != null) {
+                    store.invalidate(purged.userIds());
+                }
+                purgedCarts.increment(purged.userIds().size());
+                purgedItems.increment(purged.items());
+                carts += purged.userIds().size();
+                items += purged.items();
+                if (purged.userIds().size() < properties.getBatchSize()) {
+                    break;
+                }
+            }
+        } finally {
+            long nanos = sample.stop(runDuration);
+            if (carts > 0) {
+                log.info("Cart compaction purged {} carts and {} items in {} ms", carts, items, nanos / 1_000_000);
+            }
+        }
+    }
+
+    private static PurgedBatch mapBatch(ResultSet rs, int rowNum) throws SQLException {
+        Long[] userIds = (Long[]) rs.getArray("user_ids").getArray();
+        return new PurgedBatch(rs.getLong("items"), List.of(userIds));
+    }
+
+    record PurgedBatch(long items, List<Long> userIds) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.blibli.training.cart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cart.compaction")
+public class CartCompactionProperties {
+
+    private boolean enabled = true;
+
+    // Carts not modified for this long are purged
+    private Duration ttl = Duration.ofDays(30);
+
+    private int batchSize = 500;
+    private int maxBatchesPerRun = 100;
+}
@@ -0,0 +1,26 @@
+package com.blibli.training.cart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cart.store")
+public class CartStoreProperties {
+
+    private Mode mode = Mode.DATABASE;
+
+    // write-behind only
+    private Duration flushInterval = Duration.ofSeconds(1);
+    private int flushBatchSize = 500;
+    private Duration maxIdle = Duration.ofMinutes(30);
+    private String journalDirectory = "/tmp/cart-service/journal";
+
+    public enum Mode {
+        DATABASE,
+        WRITE_BEHIND
+    }
+}
@@ -0,0 +1,9 @@
+package com.blibli.training.cart.config;
+
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableFeignClients(basePackages = "com.blibli.training.cart.client")
+public class FeignConfig {
+}
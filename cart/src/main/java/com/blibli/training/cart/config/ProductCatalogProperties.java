@@ -0,0 +1,19 @@
+package com.blibli.training.cart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cart.product-catalog")
+public class ProductCatalogProperties {
+
+    private String url = "http://localhost:8082/product-service";
+
+    // How long a product snapshot is trusted before it is fetched again
+    private Duration cacheTtl = Duration.ofSeconds(30);
+    private int maxCachedProducts = 10_000;
+}
@@ -1,9 +1,13 @@
 package com.blibli.training.cart.controller;
 
+import com.blibli.training.cart.dto.CartSummary;
+import com.blibli.training.cart.dto.CartView;
 import com.blibli.training.cart.entity.Cart;
 import com.blibli.training.cart.entity.CartItem;
+import com.blibli.training.cart.service.CartRevalidationService;
 import com.blibli.training.cart.service.CartService;
 import com.blibli.training.framework.dto.BaseResponse;
+import com.blibli.training.framework.web.VersionETag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/cart")
@@ -20,10 +25,30 @@ import org.springframework.web.bind.annotation.RestController;
 public class CartController {
 
     private final CartService cartService;
+    private final CartRevalidationService cartRevalidationService;
 
+    /**
+     * The view also depends on the catalog, so the cart is always loaded; a matching
+     * {@code If-None-Match} still gets a 304 without a body.
+     */
     @GetMapping
-    public BaseResponse<Cart> getCart(@RequestHeader("X-User-Id") Long userId) {
-        return BaseResponse.success(cartService.getCartByUserId(userId));
+    public BaseResponse<CartView> getCart(@RequestHeader("X-User-Id") Long userId, WebRequest request) {
+        CartView view = cartRevalidationService.revalidate(cartService.getCartByUserId(userId));
+        if (VersionETag.isNotModified(request, view.getEtag())) {
+            return null;
+        }
+        return BaseResponse.success(view);
+    }
+
+    /**
+     * Answers a matching {@code If-None-Match} with 304 after reading only the cart's version.
+     */
+    @GetMapping("/summary")
+    public BaseResponse<CartSummary> getCartSummary(@RequestHeader("X-User-Id") Long userId, WebRequest request) {
+        if (VersionETag.isNotModified(request, cartService.getCartSummaryETag(userId))) {
+            return null;
+        }
+        return BaseResponse.success(cartService.getCartSummary(userId));
     }
 
     @PostMapping("/items")
@@ -0,0 +1,26 @@
+package com.blibli.training.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemView {
+    private Long id;
+    private String productCode;
+    private String productName;
+    private BigDecimal price;
+    private Integer quantity;
+
+    private BigDecimal currentPrice;
+    private Integer availableStock;
+    private boolean priceChanged;
+    private boolean insufficientStock;
+    private boolean unavailable;
+}
@@ -0,0 +1,16 @@
+package com.blibli.training.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSummary {
+    private long itemCount;
+    private long totalQuantity;
+    private BigDecimal subtotal;
+}
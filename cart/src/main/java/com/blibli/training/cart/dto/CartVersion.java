@@ -0,0 +1,13 @@
+package com.blibli.training.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartVersion {
+    private Long id;
+    private Long version;
+}
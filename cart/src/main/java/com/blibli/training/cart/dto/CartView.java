@@ -0,0 +1,33 @@
+package com.blibli.training.cart.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A cart as returned by {@code GET /cart}, with every line checked against the product catalog.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartView {
+    private Long id;
+    private Long userId;
+    private Long version;
+    private Instant updatedAt;
+    private List<CartItemView> items;
+
+    // False when the catalog could not be reached and the lines were not checked
+    private boolean revalidated;
+    private boolean changed;
+
+    // Sent as the ETag header: the cart version plus the version of every product it was checked against
+    @JsonIgnore
+    private String etag;
+}
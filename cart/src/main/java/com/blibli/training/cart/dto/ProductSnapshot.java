@@ -0,0 +1,22 @@
+package com.blibli.training.cart.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductSnapshot {
+    private String id;
+    private String name;
+    private BigDecimal price;
+    private Integer stock;
+    private Long version;
+}
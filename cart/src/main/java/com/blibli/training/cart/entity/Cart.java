@@ -1,33 +1,43 @@
 package com.blibli.training.cart.entity;
 
+import com.blibli.training.framework.persistence.PooledSequence;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "carts")
+@Table(name = "carts", indexes = @Index(name = Cart.USER_ID_INDEX, columnList = "user_id", unique = true))
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Cart {
+    public static final String USER_ID_INDEX = "uk_carts_user_id";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "carts_seq")
     private Long id;
 
     private Long userId;
 
+    @Version
+    private Long version;
+
+    // Changing items alone does not dirty the cart row, so every mutation sets this to force a version bump
+    private Instant updatedAt;
+
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<CartItem> items = new ArrayList<>();
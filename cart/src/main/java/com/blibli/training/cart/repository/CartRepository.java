@@ -1,12 +1,25 @@
 package com.blibli.training.cart.repository;
 
+import com.blibli.training.cart.dto.CartSummary;
+import com.blibli.training.cart.dto.CartVersion;
 import com.blibli.training.cart.entity.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
+    @EntityGraph(attributePaths = "items")
     Optional<Cart> findByUserId(Long userId);
+
+    @Query("SELECT new com.blibli.training.cart.dto.CartSummary(COUNT(i), COALESCE(SUM(i.quantity), 0), "
+            + "COALESCE(SUM(i.price * i.quantity), 0)) FROM CartItem i WHERE i.cart.userId = :userId")
+    CartSummary summarizeByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.blibli.training.cart.dto.CartVersion(c.id, c.version) FROM Cart c WHERE c.userId = :userId")
+    Optional<CartVersion> findVersionByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,112 @@
+package com.blibli.training.cart.service;
+
+import com.blibli.training.cart.dto.CartItemView;
+import com.blibli.training.cart.dto.CartView;
+import com.blibli.training.cart.dto.ProductSnapshot;
+import com.blibli.training.cart.entity.Cart;
+import com.blibli.training.cart.entity.CartItem;
+import com.blibli.training.framework.web.VersionETag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compares the price and quantity stored on each cart line with the current catalog.
+ * The cart itself is not modified; changes are only flagged so the client can show them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartRevalidationService {
+
+    private final ProductCatalog productCatalog;
+
+    public CartView revalidate(Cart cart) {
+        List<String> productCodes = cart.getItems().stream()
+                .map(CartItem::getProductCode)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<String, ProductSnapshot> snapshots = lookup(cart, productCodes);
+        boolean revalidated = snapshots != null;
+
+        List<CartItemView> items = cart.getItems().stream()
+                .map(item -> toView(item, revalidated && item.getProductCode() != null
+                        ? snapshots.get(item.getProductCode()) : null, revalidated))
+                .toList();
+
+        return CartView.builder()
+                .id(cart.getId())
+                .userId(cart.getUserId())
+                .version(cart.getVersion())
+                .updatedAt(cart.getUpdatedAt())
+                .items(items)
+                .revalidated(revalidated)
+                .changed(items.stream().anyMatch(i -> i.isPriceChanged() || i.isInsufficientStock() || i.isUnavailable()))
+                .etag(etag(cart, productCodes, snapshots))
+                .build();
+    }
+
+    /**
+     * @return null when the catalog could not be reached
+     */
+    private Map<String, ProductSnapshot> lookup(Cart cart, List<String> productCodes) {
+        if (productCodes.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return productCatalog.getSnapshots(productCodes);
+        } catch (RuntimeException e) {
+            // The cart is still usable without the catalog; it is just not checked
+            log.warn("Product catalog unavailable, returning cart {} unchecked: {}", cart.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String etag(Cart cart, List<String> productCodes, Map<String, ProductSnapshot> snapshots) {
+        VersionETag.Builder etag = VersionETag.builder("cart")
+                .add(cart.getId(), cart.getVersion())
+                .add(snapshots != null);
+        if (snapshots != null) {
+            for (String code : productCodes) {
+                ProductSnapshot snapshot = snapshots.get(code);
+                if (snapshot != null) {
+                    etag.add(code, snapshot.getVersion());
+                } else {
+                    // Marks a product the catalog no longer knows
+                    etag.add(code, -1L);
+                }
+            }
+        }
+        return etag.build();
+    }
+
+    private static CartItemView toView(CartItem item, ProductSnapshot snapshot, boolean revalidated) {
+        CartItemView.CartItemViewBuilder view = CartItemView.builder()
+                .id(item.getId())
+                .productCode(item.getProductCode())
+                .productName(item.getProductName())
+                .price(item.getPrice())
+                .quantity(item.getQuantity());
+        if (!revalidated) {
+            return view.build();
+        }
+        if (snapshot == null) {
+            return view.unavailable(true).build();
+        }
+        int quantity = item.getQuantity() == null ? 0 : item.getQuantity();
+        int stock = snapshot.getStock() == null ? 0 : snapshot.getStock();
+        return view
+                .currentPrice(snapshot.getPrice())
+                .availableStock(stock)
+                .priceChanged(snapshot.getPrice() != null
+                        && (item.getPrice() == null || item.getPrice().compareTo(snapshot.getPrice()) != 0))
+                .insufficientStock(stock < quantity)
+                .build();
+    }
+}
@@ -1,46 +1,118 @@
 package com.blibli.training.cart.service;
 
+import com.blibli.training.cart.dto.CartSummary;
 import com.blibli.training.cart.entity.Cart;
 import com.blibli.training.cart.entity.CartItem;
 import com.blibli.training.cart.repository.CartRepository;
+import com.blibli.training.cart.store.StripedLock;
+import com.blibli.training.framework.web.VersionETag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "cart.store", name = "mode", havingValue = "database", matchIfMissing = true)
 public class CartService {
 
+    static final int MAX_ATTEMPTS = 5;
+    private static final int LOCK_STRIPES = 256;
+
     private final CartRepository cartRepository;
+    private final StripedLock userLocks = new StripedLock(LOCK_STRIPES);
 
     public Cart getCartByUserId(Long userId) {
-        return cartRepository.findByUserId(userId)
-                .orElseGet(() -> cartRepository.save(Cart.builder().userId(userId).build()));
+        return cartRepository.findByUserId(userId).orElseGet(() -> createCart(userId));
+    }
+
+    /**
+     * Creates the user's cart; the unique index on carts.user_id lets only one of several racing creators win,
+     * whether they run in this instance or another one, and the others read the winner's cart.
+     */
+    private Cart createCart(Long userId) {
+        try {
+            return cartRepository.save(Cart.builder().userId(userId).updatedAt(Instant.now()).build());
+        } catch (DataIntegrityViolationException e) {
+            return cartRepository.findByUserId(userId).orElseThrow(() -> e);
+        }
+    }
+
+    public CartSummary getCartSummary(Long userId) {
+        return cartRepository.summarizeByUserId(userId);
+    }
+
+    /**
+     * @return the ETag of the user's cart summary from the cart version alone, or null if there is no cart
+     */
+    public String getCartSummaryETag(Long userId) {
+        return cartRepository.findVersionByUserId(userId)
+                .map(cart -> VersionETag.of("cart-summary", cart.getId(), cart.getVersion()))
+                .orElse(null);
     }
 
     public Cart addItemToCart(Long userId, CartItem item) {
-        Cart cart = getCartByUserId(userId);
-        
-        item.setCart(cart);
-        cart.getItems().add(item);
+        return mutate(userId, () -> {
+            Cart cart = getCartByUserId(userId);
+
+            item.setCart(cart);
+            cart.getItems().add(item);
+            cart.setUpdatedAt(Instant.now());
 
-        return cartRepository.save(cart);
+            return cartRepository.save(cart);
+        });
     }
 
     public Cart removeItemFromCart(Long userId, Long itemId) {
-        Cart cart = getCartByUserId(userId);
-        cart.getItems().removeIf(item -> item.getId().equals(itemId));
-        return cartRepository.save(cart);
+        return mutate(userId, () -> {
+            Cart cart = getCartByUserId(userId);
+            cart.getItems().removeIf(item -> item.getId().equals(itemId));
+            cart.setUpdatedAt(Instant.now());
+            return cartRepository.save(cart);
+        });
     }
 
     public Cart clearCart(Long userId) {
-        Cart cart = getCartByUserId(userId);
-        cart.getItems().clear();
-        return cartRepository.save(cart);
+        return mutate(userId, () -> {
+            Cart cart = getCartByUserId(userId);
+            cart.getItems().clear();
+            cart.setUpdatedAt(Instant.now());
+            return cartRepository.save(cart);
+        });
     }
 
     public void deleteCart(Long userId) {
-        cartRepository.findByUserId(userId)
-                .ifPresent(cartRepository::delete);
+        mutate(userId, () -> {
+            cartRepository.findByUserId(userId)
+                    .ifPresent(cartRepository::delete);
+            return null;
+        });
     }
-}
 
+    /**
+     * Runs a read-modify-write of the user's cart. Writers in this instance are serialized per user;
+     * a write that lost a version check against another instance is replayed on a fresh copy of the cart.
+     */
+    private <T> T mutate(Long userId, Supplier<T> mutation) {
+        Lock lock = userLocks.get(userId);
+        lock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return mutation.get();
+                } catch (OptimisticLockingFailureException e) {
+                    if (attempt >= MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
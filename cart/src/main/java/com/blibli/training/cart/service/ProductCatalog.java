@@ -0,0 +1,81 @@
+package com.blibli.training.cart.service;
+
+import com.blibli.training.cart.client.ProductClient;
+import com.blibli.training.cart.config.ProductCatalogProperties;
+import com.blibli.training.cart.dto.ProductSnapshot;
+import com.blibli.training.framework.dto.BaseResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Product snapshots from the product service, cached for {@code cart.product-catalog.cache-ttl}.
+ * All products missing from the cache are fetched with a single batch call.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCatalog {
+
+    private final ProductClient productClient;
+    private final ProductCatalogProperties properties;
+
+    private final Map<String, CachedSnapshot> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @return snapshot per product code; codes unknown to the product service are absent
+     */
+    public Map<String, ProductSnapshot> getSnapshots(Collection<String> productCodes) {
+        long now = System.currentTimeMillis();
+        Map<String, ProductSnapshot> result = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String code : productCodes) {
+            CachedSnapshot cached = cache.get(code);
+            if (cached != null && cached.expiresAt > now) {
+                if (cached.snapshot != null) {
+                    result.put(code, cached.snapshot);
+                }
+            } else {
+                missing.add(code);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        BaseResponse<List<ProductSnapshot>> response = productClient.getProductsByIds(new ArrayList<>(missing));
+        List<ProductSnapshot> fetched = response == null || response.getData() == null ? List.of() : response.getData();
+        long expiresAt = now + properties.getCacheTtl().toMillis();
+        evictIfFull(now);
+        for (ProductSnapshot snapshot : fetched) {
+            result.put(snapshot.getId(), snapshot);
+            cache.put(snapshot.getId(), new CachedSnapshot(snapshot, expiresAt));
+            missing.remove(snapshot.getId());
+        }
+        // Remember unknown products too, so a cart with a deleted product does not refetch on every read
+        for (String code : missing) {
+            cache.put(code, new CachedSnapshot(null, expiresAt));
+        }
+        return result;
+    }
+
+    private void evictIfFull(long now) {
+        if (cache.size() < properties.getMaxCachedProducts()) {
+            return;
+        }
+        cache.values().removeIf(cached -> cached.expiresAt <= now);
+        if (cache.size() >= properties.getMaxCachedProducts()) {
+            cache.clear();
+        }
+    }
+
+    private record CachedSnapshot(ProductSnapshot snapshot, long expiresAt) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.blibli.training.cart.service;
+
+import com.blibli.training.cart.dto.CartSummary;
+import com.blibli.training.cart.entity.Cart;
+import com.blibli.training.cart.entity.CartItem;
+import com.blibli.training.cart.repository.CartRepository;
+import com.blibli.training.cart.store.WriteBehindCartStore;
+import com.blibli.training.framework.web.VersionETag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+
+/**
+ * Serves carts from {@link WriteBehindCartStore} instead of reading and writing PostgreSQL on every request.
+ * Enabled with {@code cart.store.mode=write-behind}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "cart.store", name = "mode", havingValue = "write-behind")
+public class WriteBehindCartService extends CartService {
+
+    private final WriteBehindCartStore cartStore;
+
+    public WriteBehindCartService(CartRepository cartRepository, WriteBehindCartStore cartStore) {
+        super(cartRepository);
+        this.cartStore = cartStore;
+    }
+
+    @Override
+    public Cart getCartByUserId(Long userId) {
+        return cartStore.get(userId);
+    }
+
+    @Override
+    public CartSummary getCartSummary(Long userId) {
+        Cart cart = cartStore.find(userId);
+        if (cart == null) {
+            return new CartSummary(0, 0, BigDecimal.ZERO);
+        }
+        long totalQuantity = 0;
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (CartItem item : cart.getItems()) {
+            int quantity = item.getQuantity() == null ? 0 : item.getQuantity();
+            totalQuantity += quantity;
+            if (item.getPrice() != null) {
+                subtotal = subtotal.add(item.getPrice().multiply(BigDecimal.valueOf(quantity)));
+            }
+        }
+        return new CartSummary(cart.getItems().size(), totalQuantity, subtotal);
+    }
+
+    @Override
+    public String getCartSummaryETag(Long userId) {
+        Cart cart = cartStore.find(userId);
+        return cart == null ? null : VersionETag.of("cart-summary", cart.getId(), cart.getVersion());
+    }
+
+    @Override
+    public Cart addItemToCart(Long userId, CartItem item) {
+        return cartStore.update(userId, cart -> {
+            item.setId(null);
+            cart.getItems().add(item);
+        });
+    }
+
+    @Override
+    public Cart removeItemFromCart(Long userId, Long itemId) {
+        return cartStore.update(userId, cart -> cart.getItems().removeIf(item -> item.getId().equals(itemId)));
+    }
+
+    @Override
+    public Cart clearCart(Long userId) {
+        return cartStore.update(userId, cart -> cart.getItems().clear());
+    }
+
+    @Override
+    public void deleteCart(Long userId) {
+        cartStore.delete(userId);
+    }
+}
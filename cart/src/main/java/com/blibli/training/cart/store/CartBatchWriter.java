@@ -0,0 +1,64 @@
+package com.blibli.training.cart.store;
+
+import com.blibli.training.cart.entity.Cart;
+import com.blibli.training.cart.entity.CartItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Makes the database match the given cart snapshots using one JDBC batch per statement,
+ * all in a single transaction. Writing full snapshots keeps the flush idempotent.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "cart.store", name = "mode", havingValue = "write-behind")
+public class CartBatchWriter {
+
+    private static final long NO_CART = -1L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * @param carts snapshot per userId; a null value deletes the user's cart
+     */
+    public void write(Map<Long, Cart> carts) {
+        List<Object[]> staleCarts = new ArrayList<>();
+        List<Object[]> cartRows = new ArrayList<>();
+        List<Object[]> cartIds = new ArrayList<>();
+        List<Object[]> itemRows = new ArrayList<>();
+
+        carts.forEach((userId, cart) -> {
+            staleCarts.add(new Object[]{userId, cart == null ? NO_CART : cart.getId()});
+            if (cart == null) {
+                return;
+            }
+            cartRows.add(new Object[]{cart.getId(), userId, cart.getVersion(), Timestamp.from(cart.getUpdatedAt())});
+            cartIds.add(new Object[]{cart.getId()});
+            for (CartItem item : cart.getItems()) {
+                itemRows.add(new Object[]{item.getId(), cart.getId(), item.getProductCode(), item.getProductName(),
+                        item.getPrice(), item.getQuantity()});
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE cart_id IN "
+                    + "(SELECT id FROM carts WHERE user_id = ? AND id <> ?)", staleCarts);
+            jdbcTemplate.batchUpdate("DELETE FROM carts WHERE user_id = ? AND id <> ?", staleCarts);
+            jdbcTemplate.batchUpdate("INSERT INTO carts (id, user_id, version, updated_at) VALUES (?, ?, ?, ?) "
+                    + "ON CONFLICT (id) DO UPDATE SET version = EXCLUDED.version, updated_at = EXCLUDED.updated_at",
+                    cartRows);
+            jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE cart_id = ?", cartIds);
+            jdbcTemplate.batchUpdate("INSERT INTO cart_items (id, cart_id, product_code, product_name, price, quantity) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", itemRows);
+        });
+    }
+}
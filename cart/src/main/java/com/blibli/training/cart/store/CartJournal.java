@@ -0,0 +1,176 @@
+package com.blibli.training.cart.store;
+
+import com.blibli.training.cart.config.CartStoreProperties;
+import com.blibli.training.cart.entity.Cart;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of cart snapshots, split into numbered segment files.
+ * Segments are rotated on every flush and deleted once their content is in the database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "cart.store", name = "mode", havingValue = "write-behind")
+public class CartJournal {
+
+    private static final String SEGMENT_PREFIX = "cart-journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+
+    private Segment current;
+
+    public CartJournal(ObjectMapper objectMapper, CartStoreProperties properties) {
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(properties.getJournalDirectory());
+    }
+
+    /**
+     * Reads every segment left on disk, oldest first. Later entries for a user replace earlier ones.
+     */
+    public synchronized Map<Long, Cart> replay() throws IOException {
+        Map<Long, Cart> carts = new LinkedHashMap<>();
+        for (Path segment : listSegments()) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        CartJournalEntry entry = objectMapper.readValue(line, CartJournalEntry.class);
+                        if (entry.cart() != null) {
+                            entry.cart().getItems().forEach(item -> item.setCart(entry.cart()));
+                        }
+                        carts.put(entry.userId(), entry.cart());
+                    } catch (JsonProcessingException e) {
+                        // A crash can leave a partially written last line; it was never acknowledged
+                        log.warn("Skipping unreadable journal entry in {}", segment.getFileName());
+                    }
+                }
+            }
+        }
+        return carts;
+    }
+
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        long next = segments.isEmpty() ? 1 : segmentId(segments.get(segments.size() - 1)) + 1;
+        current = new Segment(next, directory.resolve(SEGMENT_PREFIX + next + SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Writes the entry without forcing it to disk. Pass the returned position to {@link #sync(Position)}
+     * before acknowledging the change, so concurrent writers share a single fsync.
+     */
+    public synchronized Position append(CartJournalEntry entry) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            current.channel.write(buffer);
+        }
+        return new Position(current, current.channel.position());
+    }
+
+    public void sync(Position position) throws IOException {
+        Segment segment = position.segment();
+        synchronized (segment) {
+            if (segment.closed || segment.synced >= position.offset()) {
+                return;
+            }
+            long target = segment.channel.position();
+            segment.channel.force(false);
+            segment.synced = target;
+        }
+    }
+
+    /**
+     * Closes the current segment and starts a new one.
+     *
+     * @return id of the new segment; everything older can be deleted once flushed
+     */
+    public synchronized long rotate() throws IOException {
+        Segment previous = current;
+        current = new Segment(previous.id + 1, directory.resolve(SEGMENT_PREFIX + (previous.id + 1) + SEGMENT_SUFFIX));
+        previous.close();
+        return current.id;
+    }
+
+    public synchronized void deleteSegmentsBefore(long segmentId) throws IOException {
+        for (Path segment : listSegments()) {
+            if (segmentId(segment) < segmentId) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted((a, b) -> Long.compare(segmentId(a), segmentId(b)))
+                    .toList();
+        }
+    }
+
+    private static long segmentId(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    public record Position(Segment segment, long offset) {
+    }
+
+    public static final class Segment {
+        private final long id;
+        private final FileChannel channel;
+        private long synced;
+        private boolean closed;
+
+        private Segment(long id, Path file) throws IOException {
+            this.id = id;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+
+        private synchronized void close() throws IOException {
+            if (!closed) {
+                channel.force(false);
+                channel.close();
+                closed = true;
+            }
+        }
+    }
+}
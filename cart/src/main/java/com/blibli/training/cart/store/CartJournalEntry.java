@@ -0,0 +1,9 @@
+package com.blibli.training.cart.store;
+
+import com.blibli.training.cart.entity.Cart;
+
+/**
+ * Full state of one user's cart after a mutation. A null cart records a deletion.
+ */
+public record CartJournalEntry(Long userId, Cart cart) {
+}
@@ -0,0 +1,364 @@
+package com.blibli.training.cart.store;
+
+import com.blibli.training.cart.config.CartStoreProperties;
+import com.blibli.training.cart.entity.Cart;
+import com.blibli.training.cart.entity.CartItem;
+import com.blibli.training.cart.repository.CartRepository;
+import com.blibli.training.framework.persistence.SequenceBlockAllocator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Keeps active carts in memory and writes them to PostgreSQL in batches.
+ * <p>
+ * Every mutation is applied to a fresh copy of the cart, appended to the {@link CartJournal} and synced
+ * before it is acknowledged. Published carts are never modified, so readers need no locking.
+ * A flush rotates the journal, writes all dirty carts through {@link CartBatchWriter} and then drops the
+ * old journal segments. On startup the journal is replayed, so an acknowledged change is never lost.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "cart.store", name = "mode", havingValue = "write-behind")
+public class WriteBehindCartStore {
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final CartRepository cartRepository;
+    private final CartJournal journal;
+    private final CartBatchWriter batchWriter;
+    private final CartStoreProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SequenceBlockAllocator cartIds;
+    private final SequenceBlockAllocator itemIds;
+
+    private final Map<Long, CachedCart> carts = new ConcurrentHashMap<>();
+    private final StripedLock userLocks = new StripedLock(LOCK_STRIPES);
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Mutations hold the read lock while journaling; a flush takes the write lock to cut a consistent snapshot
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private ScheduledExecutorService flusher;
+
+    public WriteBehindCartStore(CartRepository cartRepository, CartJournal journal, CartBatchWriter batchWriter,
+                                CartStoreProperties properties, PlatformTransactionManager transactionManager,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${spring.jpa.properties.training.id.allocation-size:50}") int allocationSize) {
+        this.cartRepository = cartRepository;
+        this.journal = journal;
+        this.batchWriter = batchWriter;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cartIds = new SequenceBlockAllocator(jdbcTemplate, "carts_seq", allocationSize);
+        this.itemIds = new SequenceBlockAllocator(jdbcTemplate, "cart_items_seq", allocationSize);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Map<Long, Cart> replayed = journal.replay();
+        replayed.forEach((userId, cart) -> {
+            carts.put(userId, new CachedCart(cart));
+            dirty.add(userId);
+        });
+        if (!replayed.isEmpty()) {
+            log.info("Replayed {} carts from the journal", replayed.size());
+        }
+        journal.open();
+
+        long interval = properties.getFlushInterval().toMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(properties.getFlushInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        journal.close();
+    }
+
+    public Cart get(Long userId) {
+        Cart cart = find(userId);
+        // No cart yet, or deleted and not flushed: start a new one
+        return cart != null ? cart : update(userId, c -> { });
+    }
+
+    /**
+     * Same as {@link #get(Long)} but returns null instead of creating a cart.
+     */
+    public Cart find(Long userId) {
+        CachedCart cached = carts.get(userId);
+        if (cached == null) {
+            cached = loadIntoCache(userId);
+            if (cached == null) {
+                return null;
+            }
+        }
+        cached.lastAccess = System.currentTimeMillis();
+        return cached.cart;
+    }
+
+    /**
+     * Applies the mutation to a copy of the user's cart. Items without an id get one reserved from the
+     * cart_items sequence, so clients can address them before the cart is flushed.
+     * <p>
+     * Loading, id reservation and journaling run under the user's stripe rather than inside the map, so a
+     * slow database or disk only holds up users sharing that stripe.
+     */
+    public Cart update(Long userId, Consumer<Cart> mutation) {
+        Cart next;
+        CartJournal.Position position;
+        Lock userLock = userLocks.get(userId);
+        userLock.lock();
+        try {
+            // A cached null is a delete that has not been flushed yet: start a new cart
+            CachedCart cached = carts.get(userId);
+            Cart current = cached != null ? cached.cart : load(userId);
+            if (current != null) {
+                next = copy(current);
+                next.setVersion(current.getVersion() == null ? 0 : current.getVersion() + 1);
+            } else {
+                next = Cart.builder().id(cartIds.next()).userId(userId).version(0L).build();
+            }
+            mutation.accept(next);
+            next.setUpdatedAt(Instant.now());
+            for (CartItem item : next.getItems()) {
+                if (item.getId() == null) {
+                    item.setId(itemIds.next());
+                }
+                item.setCart(next);
+            }
+
+            position = publish(userId, next);
+        } finally {
+            userLock.unlock();
+        }
+
+        sync(position);
+        flushIfFull();
+        return next;
+    }
+
+    public void delete(Long userId) {
+        CartJournal.Position position;
+        Lock userLock = userLocks.get(userId);
+        userLock.lock();
+        try {
+            position = publish(userId, null);
+        } finally {
+            userLock.unlock();
+        }
+
+        sync(position);
+        flushIfFull();
+    }
+
+    /**
+     * Forgets carts whose rows were purged from the database, so they are not written back by a later
+     * update. Carts changed since they were cached are kept: their user is active again, and the next flush
+     * stores them with a fresh updated_at.
+     */
+    public void invalidate(Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            Lock userLock = userLocks.get(userId);
+            userLock.lock();
+            try {
+                if (!dirty.contains(userId)) {
+                    carts.remove(userId);
+                }
+            } finally {
+                userLock.unlock();
+            }
+        }
+    }
+
+    public void flush() throws IOException {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (dirty.isEmpty()) {
+                evictIdle();
+                return;
+            }
+
+            Map<Long, Cart> batch = new HashMap<>();
+            long segment;
+            snapshotLock.writeLock().lock();
+            try {
+                for (Long userId : dirty) {
+                    batch.put(userId, carts.get(userId).cart);
+                }
+                dirty.clear();
+                segment = journal.rotate();
+            } finally {
+                snapshotLock.writeLock().unlock();
+            }
+
+            try {
+                batchWriter.write(batch);
+            } catch (RuntimeException e) {
+                // The old segments stay on disk; the carts are written again on the next flush
+                dirty.addAll(batch.keySet());
+                throw e;
+            }
+            journal.deleteSegmentsBefore(segment);
+            evictIdle();
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Cart flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void flushIfFull() {
+        if (dirty.size() >= properties.getFlushBatchSize() && !flushing.get()) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - properties.getMaxIdle().toMillis();
+        for (Map.Entry<Long, CachedCart> entry : carts.entrySet()) {
+            CachedCart cached = entry.getValue();
+            // Mutations always publish a new CachedCart, so remove(key, value) never drops an unflushed change
+            if (!dirty.contains(entry.getKey()) && (cached.cart == null || cached.lastAccess < cutoff)) {
+                carts.remove(entry.getKey(), cached);
+            }
+        }
+    }
+
+    // Under the user's stripe, so a load that raced a purge is cached before invalidate() runs, not after
+    private CachedCart loadIntoCache(Long userId) {
+        Lock userLock = userLocks.get(userId);
+        userLock.lock();
+        try {
+            CachedCart cached = carts.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+            Cart loaded = load(userId);
+            if (loaded == null) {
+                return null;
+            }
+            cached = new CachedCart(loaded);
+            carts.put(userId, cached);
+            return cached;
+        } finally {
+            userLock.unlock();
+        }
+    }
+
+    private Cart load(Long userId) {
+        return readOnlyTransaction.execute(status -> cartRepository.findByUserId(userId)
+                .map(WriteBehindCartStore::copy)
+                .orElse(null));
+    }
+
+    /**
+     * Journals the new state and makes it visible. Callers hold the user's stripe, so the journal order
+     * per user matches the order readers see.
+     */
+    private CartJournal.Position publish(Long userId, Cart cart) {
+        snapshotLock.readLock().lock();
+        try {
+            CartJournal.Position position = append(new CartJournalEntry(userId, cart));
+            carts.put(userId, new CachedCart(cart));
+            dirty.add(userId);
+            return position;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    private CartJournal.Position append(CartJournalEntry entry) {
+        try {
+            return journal.append(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sync(CartJournal.Position position) {
+        try {
+            journal.sync(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Cart copy(Cart cart) {
+        Cart copy = Cart.builder()
+                .id(cart.getId())
+                .userId(cart.getUserId())
+                .version(cart.getVersion())
+                .updatedAt(cart.getUpdatedAt())
+                .items(new ArrayList<>(cart.getItems().size()))
+                .build();
+        for (CartItem item : cart.getItems()) {
+            copy.getItems().add(CartItem.builder()
+                    .id(item.getId())
+                    .productCode(item.getProductCode())
+                    .productName(item.getProductName())
+                    .price(item.getPrice())
+                    .quantity(item.getQuantity())
+                    .cart(copy)
+                    .build());
+        }
+        return copy;
+    }
+
+    private static final class CachedCart {
+        private final Cart cart;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private CachedCart(Cart cart) {
+            this.cart = cart;
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- Carts created before last-modified tracking start their TTL now instead of being purged at once
+UPDATE carts SET updated_at = CURRENT_TIMESTAMP WHERE updated_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_carts_updated_at ON carts (updated_at);
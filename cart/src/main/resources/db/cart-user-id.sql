@@ -0,0 +1,8 @@
+-- Racing first requests used to create several carts for one user. Keep the oldest, move the other
+-- carts' items into it, then let the unique index stop it from happening again.
+UPDATE cart_items i SET cart_id = keep.id
+FROM carts c JOIN (SELECT user_id, MIN(id) AS id FROM carts GROUP BY user_id HAVING COUNT(*) > 1) keep
+    ON keep.user_id = c.user_id
+WHERE i.cart_id = c.id AND c.id <> keep.id;
+DELETE FROM carts c WHERE EXISTS (SELECT 1 FROM carts older WHERE older.user_id = c.user_id AND older.id < c.id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_carts_user_id ON carts (user_id);
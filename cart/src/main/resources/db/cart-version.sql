@@ -0,0 +1,2 @@
+-- Carts created before optimistic locking have no version yet
+UPDATE carts SET version = 0 WHERE version IS NULL;
@@ -0,0 +1,5 @@
+-- Carts used to be keyed by IDENTITY columns. Hibernate (ddl-auto: update) creates the
+-- pooled sequences, this moves them past any ids handed out before the switch.
+-- Runs on every startup and never moves a sequence backwards.
+SELECT setval('carts_seq', GREATEST((SELECT last_value FROM carts_seq), (SELECT COALESCE(MAX(id), 0) FROM carts)));
+SELECT setval('cart_items_seq', GREATEST((SELECT last_value FROM cart_items_seq), (SELECT COALESCE(MAX(id), 0) FROM cart_items)));
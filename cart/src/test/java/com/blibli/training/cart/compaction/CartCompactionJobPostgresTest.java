@@ -0,0 +1,130 @@
+package com.blibli.training.cart.compaction;
+
+import com.blibli.training.cart.config.CartCompactionProperties;
+import com.blibli.training.cart.store.WriteBehindCartStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs {@link CartCompactionJob#PURGE_BATCH_SQL} against a real PostgreSQL; H2 cannot run data-modifying CTEs.
+ * Set CART_TEST_POSTGRES_URL, e.g. {@code jdbc:postgresql://localhost:5432/postgres?user=postgres}.
+ * Each run works in a schema of its own and drops it afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "CART_TEST_POSTGRES_URL", matches = ".+")
+class CartCompactionJobPostgresTest {
+
+    private static final Instant EXPIRED = Instant.now().minus(Duration.ofDays(40));
+    private static final Instant FRESH = Instant.now().minus(Duration.ofDays(1));
+
+    private String schema;
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private WriteBehindCartStore cartStore;
+    private CartCompactionProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private CartCompactionJob job;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        String url = System.getenv("CART_TEST_POSTGRES_URL");
+        schema = "compaction_" + UUID.randomUUID().toString().replace("-", "");
+        new JdbcTemplate(new DriverManagerDataSource(url)).execute("CREATE SCHEMA " + schema);
+        dataSource = new DriverManagerDataSource(url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE carts (id BIGINT PRIMARY KEY, user_id BIGINT, version BIGINT, "
+                + "updated_at TIMESTAMP(6))");
+        jdbcTemplate.execute("CREATE TABLE cart_items (id BIGINT PRIMARY KEY, cart_id BIGINT REFERENCES carts (id), "
+                + "product_code VARCHAR(255), quantity INTEGER)");
+
+        properties = new CartCompactionProperties();
+        properties.setTtl(Duration.ofDays(30));
+        properties.setBatchSize(2);
+        cartStore = mock(WriteBehindCartStore.class);
+        ObjectProvider<WriteBehindCartStore> cartStoreProvider = mock(ObjectProvider.class);
+        when(cartStoreProvider.getIfAvailable()).thenReturn(cartStore);
+        meterRegistry = new SimpleMeterRegistry();
+        job = new CartCompactionJob(jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                properties, cartStoreProvider, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA " + schema + " CASCADE");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_ShouldPurgeExpiredCartsWithTheirItemsInBatches() {
+        // Given
+        insertCart(1L, 101L, EXPIRED, 2);
+        insertCart(2L, 102L, EXPIRED, 1);
+        insertCart(3L, 103L, EXPIRED, 0);
+        insertCart(4L, 104L, FRESH, 3);
+
+        // When
+        job.run();
+
+        // Then
+        assertEquals(List.of(4L), jdbcTemplate.queryForList("SELECT id FROM carts", Long.class));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items", Integer.class));
+        assertEquals(3, meterRegistry.get("cart.compaction.purged").tag("table", "carts").counter().count());
+        assertEquals(3, meterRegistry.get("cart.compaction.purged").tag("table", "cart_items").counter().count());
+        ArgumentCaptor<Collection<Long>> invalidated = ArgumentCaptor.forClass(Collection.class);
+        verify(cartStore, times(2)).invalidate(invalidated.capture());
+        assertEquals(List.of(101L, 102L, 103L),
+                invalidated.getAllValues().stream().flatMap(Collection::stream).sorted().toList());
+    }
+
+    @Test
+    void run_ShouldSkipCartLockedByAnotherTransaction() throws Exception {
+        // Given - a user is writing to an expired cart
+        insertCart(1L, 101L, EXPIRED, 1);
+        insertCart(2L, 102L, EXPIRED, 1);
+        try (Connection writer = dataSource.getConnection(); Statement statement = writer.createStatement()) {
+            writer.setAutoCommit(false);
+            statement.execute("SELECT id FROM carts WHERE id = 1 FOR UPDATE");
+
+            // When
+            job.run();
+            writer.rollback();
+        }
+
+        // Then
+        assertEquals(List.of(1L), jdbcTemplate.queryForList("SELECT id FROM carts", Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items", Integer.class));
+        verify(cartStore).invalidate(List.of(102L));
+        verify(cartStore, times(1)).invalidate(anyCollection());
+    }
+
+    private void insertCart(Long id, Long userId, Instant updatedAt, int items) {
+        jdbcTemplate.update("INSERT INTO carts (id, user_id, version, updated_at) VALUES (?, ?, 0, ?)",
+                id, userId, Timestamp.from(updatedAt));
+        for (int i = 0; i < items; i++) {
+            jdbcTemplate.update("INSERT INTO cart_items (id, cart_id, product_code, quantity) VALUES (?, ?, ?, 1)",
+                    id * 100 + i, id, "PROD-" + i);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.blibli.training.cart.compaction;
+
+import com.blibli.training.cart.config.CartCompactionProperties;
+import com.blibli.training.cart.store.WriteBehindCartStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartCompactionJobTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ObjectProvider<WriteBehindCartStore> cartStoreProvider;
+
+    @Mock
+    private WriteBehindCartStore cartStore;
+
+    private CartCompactionProperties properties;
+    private MeterRegistry meterRegistry;
+    private CartCompactionJob job;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CartCompactionProperties();
+        properties.setTtl(Duration.ofDays(7));
+        properties.setBatchSize(2);
+        properties.setMaxBatchesPerRun(10);
+        meterRegistry = new SimpleMeterRegistry();
+        job = new CartCompactionJob(jdbcTemplate, transactionTemplate, properties, cartStoreProvider, meterRegistry);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void run_ShouldPurgeInBatchesUntilBatchIsNotFull() {
+        // Given
+        when(jdbcTemplate.queryForObject(eq(CartCompactionJob.PURGE_BATCH_SQL), any(RowMapper.class), any(), any()))
+                .thenReturn(batch(5, 1L, 2L), batch(3, 3L, 4L), batch(0, 5L));
+
+        // When
+        job.run();
+
+        // Then
+        verify(transactionTemplate, times(3)).execute(any());
+        assertEquals(5, meterRegistry.get("cart.compaction.purged").tag("table", "carts").counter().count());
+        assertEquals(8, meterRegistry.get("cart.compaction.purged").tag("table", "cart_items").counter().count());
+        assertEquals(1, meterRegistry.get("cart.compaction.duration").timer().count());
+    }
+
+    @Test
+    void run_ShouldStopAtMaxBatchesPerRun() {
+        // Given
+        properties.setMaxBatchesPerRun(3);
+        when(jdbcTemplate.queryForObject(eq(CartCompactionJob.PURGE_BATCH_SQL), any(RowMapper.class), any(), any()))
+                .thenReturn(batch(2, 1L, 2L));
+
+        // When
+        job.run();
+
+        // Then
+        verify(transactionTemplate, times(3)).execute(any());
+        assertEquals(6, meterRegistry.get("cart.compaction.purged").tag("table", "carts").counter().count());
+    }
+
+    @Test
+    void run_ShouldUseTtlCutoffAndBatchSize() {
+        // Given
+        when(jdbcTemplate.queryForObject(eq(CartCompactionJob.PURGE_BATCH_SQL), any(RowMapper.class), any(), any()))
+                .thenReturn(batch(0));
+        Instant before = Instant.now().minus(properties.getTtl());
+
+        // When
+        job.run();
+
+        // Then
+        verify(jdbcTemplate).queryForObject(eq(CartCompactionJob.PURGE_BATCH_SQL), any(RowMapper.class),
+                argThat((Timestamp cutoff) -> !cutoff.toInstant().isBefore(before)
+                        && !cutoff.toInstant().isAfter(Instant.now().minus(properties.getTtl()))),
+                eq(2));
+    }
+
+    @Test
+    void run_WhenBatchFails_ShouldStillRecordDuration() {
+        // Given
+        when(jdbcTemplate.queryForObject(eq(CartCompactionJob.PURGE_BATCH_SQL), any(RowMapper.class), any(), any()))
+                .thenThrow(new RuntimeException("connection lost"));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> job.run());
+        assertEquals(1, meterRegistry.get("cart.compaction.duration").timer().count());
+        assertEquals(0, meterRegistry.get("cart.compaction.purged").tag("table", "carts").counter().count());
+    }
+
+    @Test
+    void run_InWriteBehindMode_ShouldInvalidatePurgedUsersInStore() {
+        // Given
+        when(cartStoreProvider.getIfAvailable()).thenReturn(cartStore);
+        when(jdbcTemplate.queryForObject(eq(CartCompactionJob.PURGE_BATCH_SQL), any(RowMapper.class), any(), any()))
+                .thenReturn(batch(4, 7L, 8L), batch(1, 9L));
+
+        // When
+        job.run();
+
+        // Then
+        verify(cartStore).invalidate(List.of(7L, 8L));
+        verify(cartStore).invalidate(List.of(9L));
+    }
+
+    private static CartCompactionJob.PurgedBatch batch(long items, Long... userIds) {
+        return new CartCompactionJob.PurgedBatch(items, List.of(userIds));
+    }
+}
@@ -1,20 +1,26 @@
 package com.blibli.training.cart.controller;
 
+import com.blibli.training.cart.dto.CartSummary;
+import com.blibli.training.cart.dto.ProductSnapshot;
 import com.blibli.training.cart.entity.Cart;
 import com.blibli.training.cart.entity.CartItem;
+import com.blibli.training.cart.service.CartRevalidationService;
 import com.blibli.training.cart.service.CartService;
+import com.blibli.training.cart.service.ProductCatalog;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,6 +30,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CartController.class)
+@Import(CartRevalidationService.class)
 class CartControllerTest {
 
     @Autowired
@@ -35,6 +42,9 @@ class CartControllerTest {
     @MockBean
     private CartService cartService;
 
+    @MockBean
+    private ProductCatalog productCatalog;
+
     private Cart testCart;
     private CartItem testItem;
     private Long userId;
@@ -78,6 +88,27 @@ class CartControllerTest {
         verify(cartService, times(1)).getCartByUserId(userId);
     }
 
+    @Test
+    void getCart_WhenCatalogChanged_ShouldFlagItems() throws Exception {
+        // Given
+        testCart.getItems().add(testItem);
+        when(cartService.getCartByUserId(userId)).thenReturn(testCart);
+        when(productCatalog.getSnapshots(any())).thenReturn(Map.of("PROD-001",
+                ProductSnapshot.builder().id("PROD-001").price(new BigDecimal("120.00")).stock(1).build()));
+
+        // When & Then
+        mockMvc.perform(get("/cart")
+                .header("X-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.revalidated").value(true))
+                .andExpect(jsonPath("$.data.changed").value(true))
+                .andExpect(jsonPath("$.data.items[0].price").value(100.00))
+                .andExpect(jsonPath("$.data.items[0].currentPrice").value(120.00))
+                .andExpect(jsonPath("$.data.items[0].priceChanged").value(true))
+                .andExpect(jsonPath("$.data.items[0].availableStock").value(1))
+                .andExpect(jsonPath("$.data.items[0].insufficientStock").value(true));
+    }
+
     @Test
     void getCart_WithEmptyCart_ShouldReturnEmptyItems() throws Exception {
         // Given
@@ -191,5 +222,56 @@ class CartControllerTest {
 
         verify(cartService, times(1)).addItemToCart(eq(userId), any(CartItem.class));
     }
-}
 
+    @Test
+    void getCartSummary_ShouldReturnSummary() throws Exception {
+        // Given
+        when(cartService.getCartSummary(userId)).thenReturn(new CartSummary(2, 3, new BigDecimal("300.00")));
+
+        // When & Then
+        mockMvc.perform(get("/cart/summary")
+                .header("X-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.itemCount").value(2))
+                .andExpect(jsonPath("$.data.totalQuantity").value(3))
+                .andExpect(jsonPath("$.data.subtotal").value(300.00));
+
+        verify(cartService, times(1)).getCartSummary(userId);
+        verify(cartService, never()).getCartByUserId(any());
+    }
+
+    @Test
+    void getCart_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        // Given
+        testCart.getItems().add(testItem);
+        when(cartService.getCartByUserId(userId)).thenReturn(testCart);
+        when(productCatalog.getSnapshots(any())).thenReturn(Map.of("PROD-001",
+                ProductSnapshot.builder().id("PROD-001").price(new BigDecimal("100.00")).stock(5).version(1L).build()));
+        String etag = mockMvc.perform(get("/cart").header("X-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.etag").doesNotExist())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/cart")
+                .header("X-User-Id", userId)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getCartSummary_WithMatchingIfNoneMatch_ShouldNotSummarize() throws Exception {
+        // Given
+        when(cartService.getCartSummaryETag(userId)).thenReturn("\"cart-summary-1-4\"");
+
+        // When & Then
+        mockMvc.perform(get("/cart/summary")
+                .header("X-User-Id", userId)
+                .header("If-None-Match", "\"cart-summary-1-4\""))
+                .andExpect(status().isNotModified());
+
+        verify(cartService, never()).getCartSummary(any());
+    }
+}
@@ -0,0 +1,81 @@
+package com.blibli.training.cart.repository;
+
+import com.blibli.training.cart.dto.CartSummary;
+import com.blibli.training.cart.dto.CartVersion;
+import com.blibli.training.cart.entity.Cart;
+import com.blibli.training.cart.entity.CartItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+class CartRepositoryTest {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Test
+    void summarizeByUserId_ShouldAggregateItems() {
+        // Given
+        Cart cart = Cart.builder().userId(1L).build();
+        cart.getItems().add(item(cart, "PROD-001", "100.00", 2));
+        cart.getItems().add(item(cart, "PROD-002", "25.50", 1));
+        cartRepository.save(cart);
+
+        Cart otherCart = Cart.builder().userId(2L).build();
+        otherCart.getItems().add(item(otherCart, "PROD-003", "999.00", 5));
+        cartRepository.save(otherCart);
+
+        // When
+        CartSummary summary = cartRepository.summarizeByUserId(1L);
+
+        // Then
+        assertEquals(2, summary.getItemCount());
+        assertEquals(3, summary.getTotalQuantity());
+        assertEquals(0, new BigDecimal("225.50").compareTo(summary.getSubtotal()));
+    }
+
+    @Test
+    void summarizeByUserId_WithoutCart_ShouldReturnZeros() {
+        // When
+        CartSummary summary = cartRepository.summarizeByUserId(99L);
+
+        // Then
+        assertEquals(0, summary.getItemCount());
+        assertEquals(0, summary.getTotalQuantity());
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getSubtotal()));
+    }
+
+    @Test
+    void findVersionByUserId_ShouldReturnIdAndVersionOnly() {
+        // Given
+        Cart cart = cartRepository.saveAndFlush(Cart.builder().userId(3L).build());
+
+        // When
+        CartVersion version = cartRepository.findVersionByUserId(3L).orElseThrow();
+
+        // Then
+        assertEquals(cart.getId(), version.getId());
+        assertEquals(cart.getVersion(), version.getVersion());
+        assertTrue(cartRepository.findVersionByUserId(99L).isEmpty());
+    }
+
+    private CartItem item(Cart cart, String productCode, String price, int quantity) {
+        return CartItem.builder()
+                .productCode(productCode)
+                .productName("Test Product")
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .cart(cart)
+                .build();
+    }
+}
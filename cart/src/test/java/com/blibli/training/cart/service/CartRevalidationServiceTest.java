@@ -0,0 +1,110 @@
+package com.blibli.training.cart.service;
+
+import com.blibli.training.cart.dto.CartItemView;
+import com.blibli.training.cart.dto.CartView;
+import com.blibli.training.cart.dto.ProductSnapshot;
+import com.blibli.training.cart.entity.Cart;
+import com.blibli.training.cart.entity.CartItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartRevalidationServiceTest {
+
+    @Mock
+    private ProductCatalog productCatalog;
+
+    @InjectMocks
+    private CartRevalidationService cartRevalidationService;
+
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        cart = Cart.builder().id(1L).userId(1L).items(new ArrayList<>()).build();
+        cart.getItems().add(CartItem.builder().id(1L).productCode("MTA-000001").price(new BigDecimal("100.00")).quantity(2).build());
+        cart.getItems().add(CartItem.builder().id(2L).productCode("MTA-000002").price(new BigDecimal("50.00")).quantity(1).build());
+        cart.getItems().add(CartItem.builder().id(3L).productCode("MTA-000003").price(new BigDecimal("10.00")).quantity(5).build());
+        cart.getItems().add(CartItem.builder().id(4L).productCode("MTA-000001").price(new BigDecimal("100.00")).quantity(1).build());
+    }
+
+    @Test
+    void revalidate_ShouldFlagPriceStockAndMissingProducts() {
+        // Given
+        when(productCatalog.getSnapshots(List.of("MTA-000001", "MTA-000002", "MTA-000003"))).thenReturn(Map.of(
+                "MTA-000001", ProductSnapshot.builder().id("MTA-000001").price(new BigDecimal("100")).stock(10).build(),
+                "MTA-000002", ProductSnapshot.builder().id("MTA-000002").price(new BigDecimal("45.00")).stock(0).build()));
+
+        // When
+        CartView view = cartRevalidationService.revalidate(cart);
+
+        // Then
+        assertTrue(view.isRevalidated());
+        assertTrue(view.isChanged());
+        CartItemView unchanged = view.getItems().get(0);
+        assertFalse(unchanged.isPriceChanged() || unchanged.isInsufficientStock() || unchanged.isUnavailable());
+        CartItemView changed = view.getItems().get(1);
+        assertTrue(changed.isPriceChanged());
+        assertTrue(changed.isInsufficientStock());
+        assertEquals(0, new BigDecimal("45.00").compareTo(changed.getCurrentPrice()));
+        assertTrue(view.getItems().get(2).isUnavailable());
+        verify(productCatalog, times(1)).getSnapshots(any());
+    }
+
+    @Test
+    void revalidate_WhenProductVersionChanges_ShouldChangeETag() {
+        // Given
+        ProductSnapshot v1 = ProductSnapshot.builder().id("MTA-000001").price(new BigDecimal("100")).stock(10).version(1L).build();
+        ProductSnapshot v2 = ProductSnapshot.builder().id("MTA-000001").price(new BigDecimal("90")).stock(10).version(2L).build();
+        when(productCatalog.getSnapshots(any())).thenReturn(Map.of("MTA-000001", v1), Map.of("MTA-000001", v1),
+                Map.of("MTA-000001", v2));
+
+        // When
+        String first = cartRevalidationService.revalidate(cart).getEtag();
+        String repeated = cartRevalidationService.revalidate(cart).getEtag();
+        String afterPriceChange = cartRevalidationService.revalidate(cart).getEtag();
+
+        // Then
+        assertEquals(first, repeated);
+        assertNotEquals(first, afterPriceChange);
+    }
+
+    @Test
+    void revalidate_WhenCatalogFails_ShouldReturnCartUnchecked() {
+        // Given
+        when(productCatalog.getSnapshots(any())).thenThrow(new RuntimeException("product-service down"));
+
+        // When
+        CartView view = cartRevalidationService.revalidate(cart);
+
+        // Then
+        assertFalse(view.isRevalidated());
+        assertFalse(view.isChanged());
+        assertEquals(4, view.getItems().size());
+        assertNull(view.getItems().get(0).getCurrentPrice());
+    }
+
+    @Test
+    void revalidate_WithEmptyCart_ShouldNotCallCatalog() {
+        // When
+        CartView view = cartRevalidationService.revalidate(Cart.builder().id(1L).userId(1L).build());
+
+        // Then
+        assertTrue(view.isRevalidated());
+        assertTrue(view.getItems().isEmpty());
+        verifyNoInteractions(productCatalog);
+    }
+}
@@ -0,0 +1,201 @@
+package com.blibli.training.cart.service;
+
+import com.blibli.training.cart.entity.Cart;
+import com.blibli.training.cart.entity.CartItem;
+import com.blibli.training.cart.repository.CartRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import(CartService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+class CartServiceConcurrencyTest {
+
+    private static final int WRITERS = 64;
+    private static final int ITEMS_PER_WRITER = 4;
+
+    @Autowired
+    private CartService cartService;
+
+    @MockitoSpyBean
+    private CartRepository cartRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.deleteAll();
+    }
+
+    @Test
+    void addItemToCart_With64ConcurrentWriters_ShouldNotLoseItems() throws Exception {
+        // Given
+        Long userId = 1L;
+        cartService.getCartByUserId(userId);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // When
+        for (int writer = 0; writer < WRITERS; writer++) {
+            int writerId = writer;
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ITEMS_PER_WRITER; i++) {
+                    cartService.addItemToCart(userId, item("PROD-" + writerId + "-" + i));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+
+        // Then
+        Cart cart = cartRepository.findByUserId(userId).orElseThrow();
+        assertEquals(WRITERS * ITEMS_PER_WRITER, cart.getItems().size());
+        assertEquals(WRITERS * ITEMS_PER_WRITER,
+                cart.getItems().stream().map(CartItem::getProductCode).distinct().count());
+    }
+
+    @Test
+    void save_WithStaleCart_ShouldFailVersionCheck() {
+        // Given - two copies of the same cart, as two service instances would hold
+        Long userId = 2L;
+        cartService.getCartByUserId(userId);
+        Cart first = cartRepository.findByUserId(userId).orElseThrow();
+        Cart second = cartRepository.findByUserId(userId).orElseThrow();
+
+        CartItem firstItem = item("PROD-A");
+        firstItem.setCart(first);
+        first.getItems().add(firstItem);
+        first.setUpdatedAt(Instant.now());
+        cartRepository.save(first);
+
+        // When & Then
+        CartItem secondItem = item("PROD-B");
+        secondItem.setCart(second);
+        second.getItems().add(secondItem);
+        second.setUpdatedAt(Instant.now());
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> cartRepository.save(second));
+    }
+
+    @Test
+    void addItemToCart_WhenAnotherInstanceWritesBetweenReadAndWrite_ShouldRetryOnce() {
+        // Given
+        Long userId = 3L;
+        cartService.getCartByUserId(userId);
+        writeFromAnotherInstanceAfterNextReads(userId, 1);
+
+        // When
+        cartService.addItemToCart(userId, item("PROD-A"));
+
+        // Then - the second attempt read the other instance's version and won
+        Cart cart = cartRepository.findByUserId(userId).orElseThrow();
+        assertEquals(List.of("PROD-A"), cart.getItems().stream().map(CartItem::getProductCode).toList());
+        assertEquals(2, cart.getVersion());
+        verify(cartRepository, times(2)).save(any(Cart.class));
+    }
+
+    @Test
+    void addItemToCart_WhenEveryAttemptLosesVersionCheck_ShouldGiveUpAfterMaxAttempts() {
+        // Given
+        Long userId = 4L;
+        cartService.getCartByUserId(userId);
+        writeFromAnotherInstanceAfterNextReads(userId, Integer.MAX_VALUE);
+
+        // When & Then
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> cartService.addItemToCart(userId, item("PROD-A")));
+        verify(cartRepository, times(CartService.MAX_ATTEMPTS)).save(any(Cart.class));
+        reset(cartRepository);
+        assertTrue(cartRepository.findByUserId(userId).orElseThrow().getItems().isEmpty());
+    }
+
+    @Test
+    void getCartByUserId_ConcurrentFirstRequests_ShouldCreateOneCart() throws Exception {
+        // Given
+        Long userId = 5L;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Cart>> readers = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                return cartService.getCartByUserId(userId);
+            }));
+        }
+        start.countDown();
+        List<Long> ids = new ArrayList<>();
+        for (Future<Cart> reader : readers) {
+            ids.add(reader.get().getId());
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, ids.stream().distinct().count());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM carts WHERE user_id = ?", Integer.class, userId));
+    }
+
+    /**
+     * Bumps the cart's version in the database right after the service has read it, as a write from
+     * another instance landing between the service's read and write would.
+     */
+    @SuppressWarnings("unchecked")
+    private void writeFromAnotherInstanceAfterNextReads(Long userId, int reads) {
+        clearInvocations(cartRepository);
+        AtomicInteger remaining = new AtomicInteger(reads);
+        // The repository is a JDK proxy, so the spy reaches it through its default answer
+        Answer<?> repository = mockingDetails(cartRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            Optional<Cart> cart = (Optional<Cart>) repository.answer(invocation);
+            if (remaining.getAndDecrement() > 0) {
+                jdbcTemplate.update("UPDATE carts SET version = version + 1 WHERE user_id = ?", userId);
+            }
+            return cart;
+        }).when(cartRepository).findByUserId(userId);
+    }
+
+    private CartItem item(String productCode) {
+        return CartItem.builder()
+                .productCode(productCode)
+                .productName("Test Product")
+                .price(new BigDecimal("100.00"))
+                .quantity(1)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.blibli.training.cart.service;
 
+import com.blibli.training.cart.dto.CartSummary;
 import com.blibli.training.cart.entity.Cart;
 import com.blibli.training.cart.entity.CartItem;
 import com.blibli.training.cart.repository.CartRepository;
@@ -9,6 +10,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -83,6 +86,23 @@ class CartServiceTest {
         verify(cartRepository, times(1)).save(any(Cart.class));
     }
 
+    @Test
+    void getCartByUserId_WhenAnotherRequestCreatedCartFirst_ShouldReturnThatCart() {
+        // Given
+        when(cartRepository.findByUserId(userId))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(testCart));
+        when(cartRepository.save(any(Cart.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates \"uk_carts_user_id\""));
+
+        // When
+        Cart result = cartService.getCartByUserId(userId);
+
+        // Then
+        assertSame(testCart, result);
+        verify(cartRepository, times(2)).findByUserId(userId);
+    }
+
     @Test
     void addItemToCart_ShouldAddItemAndSaveCart() {
         // Given
@@ -215,5 +235,54 @@ class CartServiceTest {
         verify(cartRepository, times(1)).findByUserId(userId);
         verify(cartRepository, never()).delete(any(Cart.class));
     }
-}
 
+    @Test
+    void addItemToCart_WhenVersionConflict_ShouldRetryOnFreshCart() {
+        // Given
+        Cart freshCart = Cart.builder().id(1L).userId(userId).version(2L).items(new ArrayList<>()).build();
+        when(cartRepository.findByUserId(userId))
+                .thenReturn(Optional.of(testCart))
+                .thenReturn(Optional.of(freshCart));
+        when(cartRepository.save(testCart))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Cart.class, 1L));
+        when(cartRepository.save(freshCart)).thenReturn(freshCart);
+
+        // When
+        Cart result = cartService.addItemToCart(userId, testItem);
+
+        // Then
+        assertSame(freshCart, result);
+        assertTrue(freshCart.getItems().contains(testItem));
+        assertEquals(freshCart, testItem.getCart());
+        verify(cartRepository, times(2)).findByUserId(userId);
+    }
+
+    @Test
+    void addItemToCart_WhenConflictPersists_ShouldGiveUpAfterMaxAttempts() {
+        // Given
+        when(cartRepository.findByUserId(userId)).thenAnswer(invocation -> Optional.of(
+                Cart.builder().id(1L).userId(userId).items(new ArrayList<>()).build()));
+        when(cartRepository.save(any(Cart.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Cart.class, 1L));
+
+        // When & Then
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> cartService.addItemToCart(userId, testItem));
+        verify(cartRepository, times(CartService.MAX_ATTEMPTS)).save(any(Cart.class));
+    }
+
+    @Test
+    void getCartSummary_ShouldUseAggregateQueryWithoutLoadingCart() {
+        // Given
+        CartSummary summary = new CartSummary(1, 2, new BigDecimal("200.00"));
+        when(cartRepository.summarizeByUserId(userId)).thenReturn(summary);
+
+        // When
+        CartSummary result = cartService.getCartSummary(userId);
+
+        // Then
+        assertSame(summary, result);
+        verify(cartRepository, never()).findByUserId(any());
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+}
@@ -0,0 +1,81 @@
+package com.blibli.training.cart.service;
+
+import com.blibli.training.cart.client.ProductClient;
+import com.blibli.training.cart.config.ProductCatalogProperties;
+import com.blibli.training.cart.dto.ProductSnapshot;
+import com.blibli.training.framework.dto.BaseResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogTest {
+
+    private StubProductClient productClient;
+    private ProductCatalogProperties properties;
+    private ProductCatalog productCatalog;
+
+    @BeforeEach
+    void setUp() {
+        productClient = new StubProductClient();
+        productClient.products.add(ProductSnapshot.builder().id("MTA-000001").price(new BigDecimal("100.00")).stock(10).build());
+        productClient.products.add(ProductSnapshot.builder().id("MTA-000002").price(new BigDecimal("50.00")).stock(0).build());
+        properties = new ProductCatalogProperties();
+        productCatalog = new ProductCatalog(productClient, properties);
+    }
+
+    @Test
+    void getSnapshots_ShouldFetchAllMissingProductsInOneCall() {
+        // When
+        Map<String, ProductSnapshot> result = productCatalog.getSnapshots(List.of("MTA-000001", "MTA-000002", "MTA-999999"));
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(0, new BigDecimal("100.00").compareTo(result.get("MTA-000001").getPrice()));
+        assertFalse(result.containsKey("MTA-999999"));
+        assertEquals(List.of(List.of("MTA-000001", "MTA-000002", "MTA-999999")), productClient.calls);
+    }
+
+    @Test
+    void getSnapshots_WithinTtl_ShouldServeFromCache() {
+        // Given
+        productCatalog.getSnapshots(List.of("MTA-000001", "MTA-999999"));
+
+        // When
+        Map<String, ProductSnapshot> result = productCatalog.getSnapshots(List.of("MTA-000001", "MTA-999999", "MTA-000002"));
+
+        // Then - unknown products are cached too, so only the new code is fetched
+        assertEquals(2, result.size());
+        assertEquals(List.of(List.of("MTA-000001", "MTA-999999"), List.of("MTA-000002")), productClient.calls);
+    }
+
+    @Test
+    void getSnapshots_AfterTtl_ShouldFetchAgain() {
+        // Given
+        properties.setCacheTtl(Duration.ZERO);
+        productCatalog.getSnapshots(List.of("MTA-000001"));
+
+        // When
+        productCatalog.getSnapshots(List.of("MTA-000001"));
+
+        // Then
+        assertEquals(2, productClient.calls.size());
+    }
+
+    private static class StubProductClient implements ProductClient {
+        private final List<ProductSnapshot> products = new ArrayList<>();
+        private final List<List<String>> calls = new ArrayList<>();
+
+        @Override
+        public BaseResponse<List<ProductSnapshot>> getProductsByIds(List<String> ids) {
+            calls.add(List.copyOf(ids));
+            return BaseResponse.success(products.stream().filter(p -> ids.contains(p.getId())).toList());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.blibli.training.cart.service;
+
+import com.blibli.training.cart.dto.CartSummary;
+import com.blibli.training.cart.entity.Cart;
+import com.blibli.training.cart.entity.CartItem;
+import com.blibli.training.cart.repository.CartRepository;
+import com.blibli.training.cart.store.WriteBehindCartStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindCartServiceTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private WriteBehindCartStore cartStore;
+
+    private WriteBehindCartService cartService;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = 1L;
+        cartService = new WriteBehindCartService(cartRepository, cartStore);
+    }
+
+    @Test
+    void getCartSummary_ShouldComputeFromMemory() {
+        // Given
+        Cart cart = Cart.builder().id(1L).userId(userId).items(new ArrayList<>()).build();
+        cart.getItems().add(CartItem.builder().id(1L).price(new BigDecimal("100.00")).quantity(2).build());
+        cart.getItems().add(CartItem.builder().id(2L).price(new BigDecimal("25.50")).quantity(1).build());
+        when(cartStore.find(userId)).thenReturn(cart);
+
+        // When
+        CartSummary summary = cartService.getCartSummary(userId);
+
+        // Then
+        assertEquals(2, summary.getItemCount());
+        assertEquals(3, summary.getTotalQuantity());
+        assertEquals(0, new BigDecimal("225.50").compareTo(summary.getSubtotal()));
+        verifyNoInteractions(cartRepository);
+    }
+
+    @Test
+    void getCartSummary_WithoutCart_ShouldNotCreateOne() {
+        // Given
+        when(cartStore.find(userId)).thenReturn(null);
+
+        // When
+        CartSummary summary = cartService.getCartSummary(userId);
+
+        // Then
+        assertEquals(0, summary.getItemCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getSubtotal()));
+        verify(cartStore, never()).get(userId);
+        verify(cartStore, never()).update(eq(userId), any());
+    }
+
+    @Test
+    void getCartSummaryETag_ShouldUseVersionFromMemory() {
+        // Given
+        when(cartStore.find(userId)).thenReturn(Cart.builder().id(7L).userId(userId).version(4L).build());
+
+        // When
+        String etag = cartService.getCartSummaryETag(userId);
+
+        // Then
+        assertEquals("\"cart-summary-7-4\"", etag);
+        verifyNoInteractions(cartRepository);
+    }
+}
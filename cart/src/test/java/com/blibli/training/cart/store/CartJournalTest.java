@@ -0,0 +1,127 @@
+package com.blibli.training.cart.store;
+
+import com.blibli.training.cart.config.CartStoreProperties;
+import com.blibli.training.cart.entity.Cart;
+import com.blibli.training.cart.entity.CartItem;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private CartStoreProperties properties;
+    private CartJournal journal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new CartStoreProperties();
+        properties.setJournalDirectory(directory.toString());
+        journal = new CartJournal(JsonMapper.builder().findAndAddModules().build(), properties);
+        journal.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.close();
+    }
+
+    @Test
+    void replay_ShouldReturnLatestSnapshotPerUser() throws Exception {
+        // Given
+        journal.sync(journal.append(new CartJournalEntry(1L, cart(10L, 1L, "PROD-001"))));
+        journal.sync(journal.append(new CartJournalEntry(2L, cart(20L, 2L, "PROD-002"))));
+        journal.sync(journal.append(new CartJournalEntry(1L, cart(10L, 1L, "PROD-003"))));
+        journal.sync(journal.append(new CartJournalEntry(2L, null)));
+        journal.close();
+
+        // When
+        Map<Long, Cart> replayed = new CartJournal(JsonMapper.builder().findAndAddModules().build(), properties).replay();
+
+        // Then
+        assertEquals(2, replayed.size());
+        Cart cart = replayed.get(1L);
+        assertEquals(10L, cart.getId());
+        assertEquals("PROD-003", cart.getItems().get(0).getProductCode());
+        assertSame(cart, cart.getItems().get(0).getCart());
+        assertTrue(replayed.containsKey(2L));
+        assertNull(replayed.get(2L));
+    }
+
+    @Test
+    void replay_WithTruncatedLastLine_ShouldSkipIt() throws Exception {
+        // Given
+        journal.sync(journal.append(new CartJournalEntry(1L, cart(10L, 1L, "PROD-001"))));
+        journal.close();
+        Path segment = Files.list(directory).findFirst().orElseThrow();
+        Files.write(segment, "{\"userId\":1,\"cart\":{\"id\":10,".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        // When
+        Map<Long, Cart> replayed = new CartJournal(JsonMapper.builder().findAndAddModules().build(), properties).replay();
+
+        // Then
+        assertEquals("PROD-001", replayed.get(1L).getItems().get(0).getProductCode());
+    }
+
+    @Test
+    void rotate_ShouldReplaySegmentsInOrderAndDeleteFlushedOnes() throws Exception {
+        // Given
+        journal.sync(journal.append(new CartJournalEntry(1L, cart(10L, 1L, "PROD-001"))));
+        long segment = journal.rotate();
+        journal.sync(journal.append(new CartJournalEntry(1L, cart(10L, 1L, "PROD-002"))));
+
+        // When & Then
+        assertEquals("PROD-002", journal.replay().get(1L).getItems().get(0).getProductCode());
+
+        journal.deleteSegmentsBefore(segment);
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        assertEquals("PROD-002", journal.replay().get(1L).getItems().get(0).getProductCode());
+    }
+
+    @Test
+    void open_AfterRestart_ShouldNotOverwriteExistingSegments() throws Exception {
+        // Given
+        journal.sync(journal.append(new CartJournalEntry(1L, cart(10L, 1L, "PROD-001"))));
+        journal.close();
+
+        // When
+        CartJournal restarted = new CartJournal(JsonMapper.builder().findAndAddModules().build(), properties);
+        restarted.open();
+        restarted.sync(restarted.append(new CartJournalEntry(2L, cart(20L, 2L, "PROD-002"))));
+        restarted.close();
+
+        // Then
+        Map<Long, Cart> replayed = restarted.replay();
+        assertEquals(2, replayed.size());
+    }
+
+    private Cart cart(Long id, Long userId, String productCode) {
+        Cart cart = Cart.builder().id(id).userId(userId).items(new ArrayList<>()).build();
+        cart.getItems().add(CartItem.builder()
+                .id(id * 100)
+                .productCode(productCode)
+                .productName("Test Product")
+                .price(new BigDecimal("100.00"))
+                .quantity(1)
+                .cart(cart)
+                .build());
+        return cart;
+    }
+}
@@ -0,0 +1,281 @@
+package com.blibli.training.cart.store;
+
+import com.blibli.training.cart.config.CartStoreProperties;
+import com.blibli.training.cart.entity.Cart;
+import com.blibli.training.cart.entity.CartItem;
+import com.blibli.training.cart.repository.CartRepository;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class WriteBehindCartStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private CartBatchWriter batchWriter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CartStoreProperties properties;
+    private WriteBehindCartStore cartStore;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userId = 1L;
+        properties = new CartStoreProperties();
+        properties.setMode(CartStoreProperties.Mode.WRITE_BEHIND);
+        properties.setJournalDirectory(directory.toString());
+        properties.setFlushInterval(Duration.ofHours(1));
+
+        AtomicLong sequence = new AtomicLong();
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .thenAnswer(invocation -> sequence.addAndGet(50));
+        when(cartRepository.findByUserId(any())).thenReturn(Optional.empty());
+
+        cartStore = newStore();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        cartStore.stop();
+    }
+
+    @Test
+    void get_WhenCartExistsInDatabase_ShouldLoadItOnlyOnce() {
+        // Given
+        Cart persisted = Cart.builder().id(7L).userId(userId).items(new ArrayList<>()).build();
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(persisted));
+
+        // When
+        Cart first = cartStore.get(userId);
+        Cart second = cartStore.get(userId);
+
+        // Then
+        assertEquals(7L, first.getId());
+        assertSame(first, second);
+        assertEquals(0, cartStore.getDirtyCount());
+        verify(cartRepository, times(1)).findByUserId(userId);
+    }
+
+    @Test
+    void update_ShouldAssignIdsWithoutWritingToDatabase() {
+        // When
+        Cart cart = cartStore.update(userId, c -> c.getItems().add(item("PROD-001")));
+
+        // Then
+        assertNotNull(cart.getId());
+        assertNotNull(cart.getItems().get(0).getId());
+        assertSame(cart, cart.getItems().get(0).getCart());
+        assertSame(cart, cartStore.get(userId));
+        assertEquals(1, cartStore.getDirtyCount());
+        verify(batchWriter, never()).write(any());
+    }
+
+    @Test
+    void update_ShouldNotModifyPreviouslyReturnedCart() {
+        // Given
+        Cart before = cartStore.update(userId, c -> c.getItems().add(item("PROD-001")));
+
+        // When
+        Cart after = cartStore.update(userId, c -> c.getItems().add(item("PROD-002")));
+
+        // Then
+        assertEquals(1, before.getItems().size());
+        assertEquals(2, after.getItems().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteAllDirtyCartsInOneBatch() throws Exception {
+        // Given
+        cartStore.update(1L, c -> c.getItems().add(item("PROD-001")));
+        cartStore.update(2L, c -> c.getItems().add(item("PROD-002")));
+        cartStore.delete(3L);
+
+        // When
+        cartStore.flush();
+
+        // Then
+        ArgumentCaptor<Map<Long, Cart>> batch = ArgumentCaptor.forClass(Map.class);
+        verify(batchWriter, times(1)).write(batch.capture());
+        assertEquals(3, batch.getValue().size());
+        assertEquals("PROD-002", batch.getValue().get(2L).getItems().get(0).getProductCode());
+        assertNull(batch.getValue().get(3L));
+        assertEquals(0, cartStore.getDirtyCount());
+    }
+
+    @Test
+    void flush_WhenWriteFails_ShouldKeepCartsDirty() {
+        // Given
+        cartStore.update(userId, c -> c.getItems().add(item("PROD-001")));
+        doThrow(new RuntimeException("database down")).when(batchWriter).write(any());
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> cartStore.flush());
+        assertEquals(1, cartStore.getDirtyCount());
+    }
+
+    @Test
+    void start_AfterCrash_ShouldReplayAcknowledgedChanges() throws Exception {
+        // Given - acknowledged but never flushed
+        Cart acknowledged = cartStore.update(userId, c -> c.getItems().add(item("PROD-001")));
+        clearInvocations(cartRepository);
+
+        // When - a new instance starts on the same journal
+        WriteBehindCartStore restarted = newStore();
+        try {
+            Cart cart = restarted.get(userId);
+
+            // Then
+            assertEquals(acknowledged.getId(), cart.getId());
+            assertEquals(acknowledged.getItems().get(0).getId(), cart.getItems().get(0).getId());
+            assertEquals(1, restarted.getDirtyCount());
+            verify(cartRepository, never()).findByUserId(userId);
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    void get_AfterDelete_ShouldStartNewCart() {
+        // Given
+        Cart original = cartStore.update(userId, c -> c.getItems().add(item("PROD-001")));
+
+        // When
+        cartStore.delete(userId);
+        Cart cart = cartStore.get(userId);
+
+        // Then
+        assertNotEquals(original.getId(), cart.getId());
+        assertTrue(cart.getItems().isEmpty());
+    }
+
+    @Test
+    void update_WhenUserHasNoCart_ShouldQueryDatabaseOnce() {
+        // When
+        cartStore.update(userId, c -> c.getItems().add(item("PROD-001")));
+
+        // Then
+        verify(cartRepository, times(1)).findByUserId(userId);
+    }
+
+    @Test
+    void update_ConcurrentlyForSameUser_ShouldKeepEveryChangeAndReplayInOrder() throws Exception {
+        // Given
+        int threads = 8;
+        int updatesPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < updatesPerThread; i++) {
+                    cartStore.update(userId, c -> c.getItems().add(item("PROD-001")));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then - in memory and after replaying the journal on a new instance
+        assertEquals(threads * updatesPerThread, cartStore.get(userId).getItems().size());
+        WriteBehindCartStore restarted = newStore();
+        try {
+            Cart replayed = restarted.get(userId);
+            assertEquals(threads * updatesPerThread, replayed.getItems().size());
+            assertEquals(threads * updatesPerThread - 1, replayed.getVersion());
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    void invalidate_CachedUnchangedCart_ShouldReloadFromDatabase() {
+        // Given - cached by a read, then purged from the database by compaction
+        Cart persisted = Cart.builder().id(7L).userId(userId).items(new ArrayList<>()).build();
+        persisted.getItems().add(item("PROD-001"));
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(persisted));
+        cartStore.get(userId);
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.empty());
+
+        // When
+        cartStore.invalidate(List.of(userId));
+        Cart cart = cartStore.update(userId, c -> c.getItems().add(item("PROD-002")));
+
+        // Then
+        assertNotEquals(7L, cart.getId());
+        assertEquals(1, cart.getItems().size());
+        assertEquals("PROD-002", cart.getItems().get(0).getProductCode());
+    }
+
+    @Test
+    void invalidate_CartChangedSinceFlush_ShouldKeepIt() {
+        // Given
+        Cart changed = cartStore.update(userId, c -> c.getItems().add(item("PROD-001")));
+
+        // When
+        cartStore.invalidate(List.of(userId));
+
+        // Then
+        assertSame(changed, cartStore.find(userId));
+        assertEquals(1, cartStore.getDirtyCount());
+    }
+
+    private WriteBehindCartStore newStore() throws Exception {
+        CartJournal journal = new CartJournal(JsonMapper.builder().findAndAddModules().build(), properties);
+        WriteBehindCartStore store = new WriteBehindCartStore(cartRepository, journal, batchWriter, properties,
+                transactionManager, jdbcTemplate, 50);
+        store.start();
+        return store;
+    }
+
+    private CartItem item(String productCode) {
+        return CartItem.builder()
+                .productCode(productCode)
+                .productName("Test Product")
+                .price(new BigDecimal("100.00"))
+                .quantity(1)
+                .build();
+    }
+}
@@ -3,7 +3,11 @@ package com.blibli.training.framework.configurations.advisor;
 import org.springframework.context.annotation.Configuration;
 import com.blibli.training.framework.dto.BaseResponse;
 import com.blibli.training.framework.exception.AuthenticationException;
+import com.blibli.training.framework.exception.ConflictException;
+import com.blibli.training.framework.exception.ServiceUnavailableException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -23,6 +27,29 @@ public class ErrorAdvisor {
                 .build();
     }
 
+    @ExceptionHandler(ConflictException.class)
+    @ResponseBody
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public BaseResponse<?> handleConflictException(ConflictException ex) {
+        return BaseResponse.<Object>builder()
+                .success(false)
+                .code(HttpStatus.CONFLICT.value())
+                .message(ex.getMessage())
+                .build();
+    }
+
+    // ResponseEntity rather than HttpServletResponse, as the WebFlux gateway also scans this advice
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<BaseResponse<?>> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(BaseResponse.<Object>builder()
+                        .success(false)
+                        .code(HttpStatus.SERVICE_UNAVAILABLE.value())
+                        .message(ex.getMessage())
+                        .build());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     @ResponseBody
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -0,0 +1,11 @@
+package com.blibli.training.framework.exception;
+
+/**
+ * Thrown when a request clashes with the current state of a resource, e.g. a duplicate id. Mapped to 409.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
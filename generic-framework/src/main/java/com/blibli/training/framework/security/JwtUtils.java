@@ -1,17 +1,47 @@
 package com.blibli.training.framework.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PrivateJwk;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs.
+ * <p>
+ * Without {@code jwt.key-set} tokens are signed and verified with the shared HMAC {@code jwt.secret}.
+ * With a key set (a JWKS file, e.g. {@code file:/etc/keys/jwks.json}) every token carries a {@code kid}
+ * header and is verified with the matching key, so verifiers only need public keys. The issuer's file
+ * also holds the private key named by {@code jwt.signing-key-id}; EC P-256 keys sign with ES256 and
+ * Ed25519 keys with EdDSA.
+ * <p>
+ * To rotate, add the new public key to every verifier's set, then switch the issuer's signing key id.
+ * Drop the old key once the last token signed with it has expired.
+ */
 @Component
 public class JwtUtils {
 
@@ -21,20 +51,93 @@ public class JwtUtils {
     @Value("${jwt.expiration:86400000}") // 1 day
     private long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.key-set:}")
+    private String keySetLocation;
+
+    @Value("${jwt.signing-key-id:}")
+    private String signingKeyId;
+
+    // Accept tokens without a kid while migrating from the HMAC secret to a key set
+    @Value("${jwt.hmac-fallback:false}")
+    private boolean hmacFallback;
+
+    private SecretKey hmacKey;
+    private boolean keySetConfigured;
+    private Map<String, Key> verificationKeys = Map.of();
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() throws IOException {
+        hmacKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        signingKey = hmacKey;
+
+        keySetConfigured = keySetLocation != null && !keySetLocation.isBlank();
+        if (keySetConfigured) {
+            Map<String, Key> keys = new HashMap<>();
+            Map<String, Key> signingKeys = new HashMap<>();
+            for (Jwk<?> jwk : loadKeySet(keySetLocation).getKeys()) {
+                if (jwk.getId() == null) {
+                    throw new IllegalStateException("Every key in " + keySetLocation + " needs a kid");
+                }
+                if (jwk instanceof PrivateJwk<?, ?, ?> privateJwk) {
+                    keys.put(jwk.getId(), privateJwk.toPublicJwk().toKey());
+                    signingKeys.put(jwk.getId(), privateJwk.toKey());
+                } else {
+                    keys.put(jwk.getId(), jwk.toKey());
+                    if (jwk.toKey() instanceof SecretKey secretKey) {
+                        signingKeys.put(jwk.getId(), secretKey);
+                    }
+                }
+            }
+            verificationKeys = Map.copyOf(keys);
+
+            if (signingKeyId != null && !signingKeyId.isBlank()) {
+                signingKey = signingKeys.get(signingKeyId);
+                if (signingKey == null) {
+                    throw new IllegalStateException("No private key for kid " + signingKeyId + " in " + keySetLocation);
+                }
+            } else {
+                // Verify-only service
+                signingKey = null;
+            }
+        }
+
+        parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
     }
 
     public String generateToken(String userId, Map<String, Object> claims) {
-        return Jwts.builder()
+        if (signingKey == null) {
+            throw new IllegalStateException("jwt.signing-key-id is not configured");
+        }
+        var builder = Jwts.builder();
+        if (signingKey != hmacKey) {
+            builder.header().keyId(signingKeyId).and();
+        }
+        return builder
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(userId)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * @return lifetime of the access tokens issued by {@link #generateToken}, in milliseconds
+     */
+    public long getExpiration() {
+        return expiration;
+    }
+
     public String getUserIdFromToken(String token) {
         return getClaimFromToken(token, Claims::getSubject);
     }
@@ -44,20 +147,46 @@ public class JwtUtils {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the token and returns its claims, so callers needing both parse it only once.
+     *
+     * @return the claims, or {@code null} if the token is not valid
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return getAllClaimsFromToken(token);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public boolean validateToken(String token) {
-        try {
-            getAllClaimsFromToken(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+        return parseClaims(token) != null;
+    }
+
+    private Key verificationKey(String keyId) {
+        if (keyId == null) {
+            if (!keySetConfigured || hmacFallback) {
+                return hmacKey;
+            }
+            throw new JwtException("Token has no key id");
+        }
+        Key key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new JwtException("Unknown key id " + keyId);
+        }
+        return key;
+    }
+
+    private static JwkSet loadKeySet(String location) throws IOException {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try (InputStream in = resource.getInputStream();
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Jwks.setParser().build().parse(reader);
         }
     }
 }
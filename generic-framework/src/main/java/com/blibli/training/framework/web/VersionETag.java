@@ -0,0 +1,79 @@
+package com.blibli.training.framework.web;
+
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Strong ETags built from entity versions instead of from the response body, so a conditional GET
+ * can be answered after a version lookup, without loading or serializing the entity.
+ * <pre>
+ * if (VersionETag.isNotModified(request, service.getETag(id))) {
+ *     return null; // 304, Spring writes no body
+ * }
+ * </pre>
+ * The tag must change whenever the representation does: include every version the response depends on.
+ */
+public final class VersionETag {
+
+    private VersionETag() {
+    }
+
+    /**
+     * Tag for a single entity, e.g. {@code "product-P001-3"}. A missing version counts as 0.
+     */
+    public static String of(String type, Object id, Long version) {
+        return '"' + type + '-' + id + '-' + (version == null ? 0 : version) + '"';
+    }
+
+    /**
+     * Tag for a response built from several entities; the parts are hashed, so the order they are added in matters.
+     */
+    public static Builder builder(String type) {
+        return new Builder(type);
+    }
+
+    /**
+     * Answers the request with 304 when its {@code If-None-Match} matches, otherwise sets the {@code ETag} header.
+     *
+     * @param etag null when there is nothing to compare, e.g. the entity does not exist
+     * @return true if the handler should return null without loading anything
+     */
+    public static boolean isNotModified(WebRequest request, String etag) {
+        return etag != null && request.checkNotModified(etag);
+    }
+
+    public static final class Builder {
+
+        private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        private final String type;
+        private long hash = FNV_OFFSET;
+
+        private Builder(String type) {
+            this.type = type;
+        }
+
+        public Builder add(Object id, Long version) {
+            mix(String.valueOf(id));
+            mix(version == null ? "0" : version.toString());
+            return this;
+        }
+
+        public Builder add(Object part) {
+            mix(String.valueOf(part));
+            return this;
+        }
+
+        public String build() {
+            return '"' + type + '-' + Long.toHexString(hash) + '"';
+        }
+
+        private void mix(String part) {
+            for (int i = 0; i < part.length(); i++) {
+                hash = (hash ^ part.charAt(i)) * FNV_PRIME;
+            }
+            // Separator, so ("ab", "c") and ("a", "bc") differ
+            hash = (hash ^ 0x1f) * FNV_PRIME;
+        }
+    }
+}
@@ -2,9 +2,12 @@ package com.blibli.training.framework.configurations.advisor;
 
 import com.blibli.training.framework.dto.BaseResponse;
 import com.blibli.training.framework.exception.AuthenticationException;
+import com.blibli.training.framework.exception.ConflictException;
+import com.blibli.training.framework.exception.ServiceUnavailableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -63,6 +66,41 @@ class ErrorAdvisorTest {
         assertFalse(response.isSuccess());
     }
 
+    // Tests for handleConflictException
+
+    @Test
+    void handleConflictException_ShouldReturnConflictResponse() {
+        // Given
+        ConflictException exception = new ConflictException("Product P001 already exists");
+
+        // When
+        BaseResponse<?> response = errorAdvisor.handleConflictException(exception);
+
+        // Then
+        assertFalse(response.isSuccess());
+        assertEquals(HttpStatus.CONFLICT.value(), response.getCode());
+        assertEquals("Product P001 already exists", response.getMessage());
+    }
+
+    // Tests for handleServiceUnavailableException
+
+    @Test
+    void handleServiceUnavailableException_ShouldReturn503WithRetryAfter() {
+        // Given
+        ServiceUnavailableException exception = new ServiceUnavailableException("Server is busy", 2);
+
+        // When
+        ResponseEntity<BaseResponse<?>> entity = errorAdvisor.handleServiceUnavailableException(exception);
+
+        // Then
+        BaseResponse<?> response = entity.getBody();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, entity.getStatusCode());
+        assertEquals("2", entity.getHeaders().getFirst("Retry-After"));
+        assertFalse(response.isSuccess());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getCode());
+        assertEquals("Server is busy", response.getMessage());
+    }
+
     // Tests for handleRuntimeException
 
     @Test
@@ -0,0 +1,186 @@
+package com.blibli.training.framework.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.lang.Supplier;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void generateToken_WithoutKeySet_ShouldUseHmacSecret() throws Exception {
+        // Given
+        JwtUtils jwtUtils = jwtUtils(null, null, false);
+
+        // When
+        String token = jwtUtils.generateToken("user@example.com", Map.of("userId", 1));
+
+        // Then
+        JsonNode header = header(token);
+        assertTrue(header.get("alg").asText().startsWith("HS"));
+        assertFalse(header.has("kid"));
+        assertTrue(jwtUtils.validateToken(token));
+        assertEquals("user@example.com", jwtUtils.getUserIdFromToken(token));
+    }
+
+    @Test
+    void generateToken_WithEs256Key_ShouldBeVerifiableWithPublicKeyOnly() throws Exception {
+        // Given
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        JwtUtils issuer = jwtUtils(keySet(privateJwk("es-1", keyPair)), "es-1", false);
+        JwtUtils verifier = jwtUtils(keySet(publicJwk("es-1", keyPair)), null, false);
+
+        // When
+        String token = issuer.generateToken("user@example.com", Map.of("userId", 1));
+
+        // Then
+        JsonNode header = header(token);
+        assertEquals("ES256", header.get("alg").asText());
+        assertEquals("es-1", header.get("kid").asText());
+        assertTrue(verifier.validateToken(token));
+        assertEquals(1, (Integer) verifier.getClaimFromToken(token, claims -> claims.get("userId")));
+    }
+
+    @Test
+    void generateToken_WithEd25519Key_ShouldSignWithEdDsa() throws Exception {
+        // Given
+        KeyPair keyPair = Jwks.CRV.Ed25519.keyPair().build();
+        JwtUtils issuer = jwtUtils(keySet(privateJwk("ed-1", keyPair)), "ed-1", false);
+        JwtUtils verifier = jwtUtils(keySet(publicJwk("ed-1", keyPair)), null, false);
+
+        // When
+        String token = issuer.generateToken("user@example.com", Map.of());
+
+        // Then
+        assertEquals("EdDSA", header(token).get("alg").asText());
+        assertTrue(verifier.validateToken(token));
+    }
+
+    @Test
+    void validateToken_DuringRotation_ShouldAcceptOldAndNewKeys() throws Exception {
+        // Given
+        KeyPair oldKey = Jwts.SIG.ES256.keyPair().build();
+        KeyPair newKey = Jwts.SIG.ES256.keyPair().build();
+        String oldToken = jwtUtils(keySet(privateJwk("old", oldKey)), "old", false).generateToken("a", Map.of());
+        String newToken = jwtUtils(keySet(privateJwk("new", newKey)), "new", false).generateToken("b", Map.of());
+
+        // When
+        JwtUtils verifier = jwtUtils(keySet(publicJwk("old", oldKey), publicJwk("new", newKey)), null, false);
+        JwtUtils afterRotation = jwtUtils(keySet(publicJwk("new", newKey)), null, false);
+
+        // Then
+        assertTrue(verifier.validateToken(oldToken));
+        assertTrue(verifier.validateToken(newToken));
+        assertFalse(afterRotation.validateToken(oldToken));
+        assertTrue(afterRotation.validateToken(newToken));
+    }
+
+    @Test
+    void validateToken_WithHmacTokenAndKeySet_ShouldRequireFallback() throws Exception {
+        // Given
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        String hmacToken = jwtUtils(null, null, false).generateToken("user@example.com", Map.of());
+        String keySet = keySet(publicJwk("es-1", keyPair));
+
+        // When
+        JwtUtils strict = jwtUtils(keySet, null, false);
+        JwtUtils migrating = jwtUtils(keySet, null, true);
+
+        // Then
+        assertFalse(strict.validateToken(hmacToken));
+        assertTrue(migrating.validateToken(hmacToken));
+    }
+
+    @Test
+    void generateToken_WithoutSigningKeyId_ShouldThrow() throws Exception {
+        // Given
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        JwtUtils verifier = jwtUtils(keySet(publicJwk("es-1", keyPair)), null, false);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> verifier.generateToken("user@example.com", Map.of()));
+    }
+
+    @Test
+    void parseClaims_WithValidAndTamperedTokens_ShouldReturnClaimsOnlyForValidOne() throws Exception {
+        // Given
+        JwtUtils jwtUtils = jwtUtils(null, null, false);
+        String token = jwtUtils.generateToken("user@example.com", Map.of("userId", 1, "tier", "premium"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // When & Then
+        assertEquals(1, jwtUtils.parseClaims(token).get("userId", Integer.class));
+        assertEquals("premium", jwtUtils.parseClaims(token).get("tier", String.class));
+        assertNotNull(jwtUtils.parseClaims(token).getId());
+        assertNull(jwtUtils.parseClaims(tampered));
+        assertNull(jwtUtils.parseClaims("not-a-jwt"));
+    }
+
+    @Test
+    void init_WithSigningKeyIdWithoutPrivateKey_ShouldThrow() throws Exception {
+        // Given
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        String keySet = keySet(publicJwk("es-1", keyPair));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> jwtUtils(keySet, "es-1", false));
+    }
+
+    private JwtUtils jwtUtils(String keySet, String signingKeyId, boolean hmacFallback) throws Exception {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret",
+                "defaultSecretKeyMustBeLongEnoughToSatisfyHS256Requirements1234567890");
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 60_000L);
+        ReflectionTestUtils.setField(jwtUtils, "keySetLocation", keySet);
+        ReflectionTestUtils.setField(jwtUtils, "signingKeyId", signingKeyId);
+        ReflectionTestUtils.setField(jwtUtils, "hmacFallback", hmacFallback);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    @SafeVarargs
+    private String keySet(Map<String, Object>... keys) throws Exception {
+        Path file = Files.createTempFile(tempDir, "jwks", ".json");
+        Files.writeString(file, MAPPER.writeValueAsString(Map.of("keys", new ArrayList<>(List.of(keys)))));
+        return file.toUri().toString();
+    }
+
+    private static Map<String, Object> publicJwk(String kid, KeyPair keyPair) throws Exception {
+        return MAPPER.readValue(Jwks.json(Jwks.builder().key(keyPair.getPublic()).id(kid).build()), Map.class);
+    }
+
+    private static Map<String, Object> privateJwk(String kid, KeyPair keyPair) throws Exception {
+        PrivateJwk<?, ?, ?> jwk = (PrivateJwk<?, ?, ?>) Jwks.builder().keyPair(keyPair).id(kid).build();
+        Map<String, Object> json = new LinkedHashMap<>(publicJwk(kid, keyPair));
+        // Private parameters are redacted unless unwrapped
+        json.put("d", ((Supplier<?>) jwk.get("d")).get());
+        return json;
+    }
+
+    private static JsonNode header(String token) throws Exception {
+        String header = token.substring(0, token.indexOf('.'));
+        return MAPPER.readTree(new String(Base64.getUrlDecoder().decode(header), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package com.blibli.training.framework.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionETagTest {
+
+    @Test
+    void of_WithNullVersion_ShouldCountAsZero() {
+        // When
+        String etag = VersionETag.of("product", "P001", null);
+
+        // Then
+        assertEquals("\"product-P001-0\"", etag);
+        assertEquals(etag, VersionETag.of("product", "P001", 0L));
+    }
+
+    @Test
+    void builder_WithDifferentVersions_ShouldProduceDifferentTags() {
+        // When
+        String first = VersionETag.builder("cart").add(1L, 4L).add("P001", 1L).build();
+        String same = VersionETag.builder("cart").add(1L, 4L).add("P001", 1L).build();
+        String productChanged = VersionETag.builder("cart").add(1L, 4L).add("P001", 2L).build();
+        String shifted = VersionETag.builder("cart").add("ab").add("c").build();
+        String shiftedOther = VersionETag.builder("cart").add("a").add("bc").build();
+
+        // Then
+        assertEquals(first, same);
+        assertNotEquals(first, productChanged);
+        assertNotEquals(shifted, shiftedOther);
+        assertTrue(first.startsWith("\"cart-") && first.endsWith("\""));
+    }
+
+    @Test
+    void isNotModified_WithMatchingIfNoneMatch_ShouldAnswer304() {
+        // Given
+        String etag = VersionETag.of("product", "P001", 3L);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/P001");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean notModified = VersionETag.isNotModified(new ServletWebRequest(request, response), etag);
+
+        // Then
+        assertTrue(notModified);
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    void isNotModified_WithStaleIfNoneMatch_ShouldSetCurrentETag() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/P001");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, VersionETag.of("product", "P001", 2L));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean notModified = VersionETag.isNotModified(new ServletWebRequest(request, response),
+                VersionETag.of("product", "P001", 3L));
+
+        // Then
+        assertFalse(notModified);
+        assertEquals(200, response.getStatus());
+        assertEquals("\"product-P001-3\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void isNotModified_WithNullETag_ShouldNotAnswer() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/P404");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean notModified = VersionETag.isNotModified(new ServletWebRequest(request, response), null);
+
+        // Then
+        assertFalse(notModified);
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+}
@@ -0,0 +1,33 @@
+package com.blibli.training.member.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "member.login")
+public class LoginProperties {
+
+    // email -> (id, password hash) for recent logins
+    private Duration cacheTtl = Duration.ofSeconds(60);
+    private int cacheMaxSize = 10_000;
+
+    private EmailFilter emailFilter = new EmailFilter();
+
+    @Data
+    public static class EmailFilter {
+        private boolean enabled = true;
+        private long expectedEmails = 1_000_000;
+        private double falsePositiveRate = 0.01;
+
+        // Rejects emails the filter has never seen without asking the database. Registrations on other
+        // instances are picked up every catch-up-interval, so they may be refused for that long
+        private boolean rejectUnknown = true;
+        private Duration catchUpInterval = Duration.ofSeconds(5);
+        // Full rebuild, which also forgets deleted emails
+        private Duration refreshInterval = Duration.ofHours(6);
+    }
+}
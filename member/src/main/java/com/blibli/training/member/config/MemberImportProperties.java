@@ -0,0 +1,23 @@
+package com.blibli.training.member.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "member.import")
+public class MemberImportProperties {
+
+    // Exposes POST /internal/members/import; meant for seeding test environments
+    private boolean enabled = false;
+
+    // Required in the X-Admin-Token header; without it every import is refused
+    private String adminToken;
+
+    // Records hashed and inserted together
+    private int chunkSize = 2000;
+
+    // 0 = one hashing thread per CPU core
+    private int parallelism = 0;
+}
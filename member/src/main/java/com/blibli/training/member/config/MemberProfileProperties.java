@@ -0,0 +1,19 @@
+package com.blibli.training.member.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "member.profile")
+public class MemberProfileProperties {
+
+    private Duration cacheTtl = Duration.ofMinutes(5);
+    private int cacheMaxSize = 50_000;
+
+    // Upper bound on ids per batch-get, which is also the size of the IN list
+    private int maxBatchSize = 500;
+}
@@ -0,0 +1,30 @@
+package com.blibli.training.member.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "member.security")
+public class MemberSecurityProperties {
+
+    // Verify JWTs here as well, for callers that bypass the gateway
+    private boolean jwtFilterEnabled = false;
+
+    // Ant-style patterns, relative to the context path
+    private List<String> publicPaths = new ArrayList<>(List.of(
+            "/register", "/login", "/refresh", "/logout", "/hello",
+            "/internal/**", "/actuator/**", "/api-docs/**", "/swagger-ui/**", "/monitoring", "/error"));
+
+    // Tokens that passed signature verification, keyed by the raw token
+    private int tokenCacheSize = 10_000;
+    private Duration tokenCacheTtl = Duration.ofMinutes(5);
+
+    // How often revocations made by any instance are read into memory
+    private Duration revocationRefreshInterval = Duration.ofSeconds(5);
+}
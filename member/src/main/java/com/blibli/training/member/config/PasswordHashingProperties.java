@@ -0,0 +1,19 @@
+package com.blibli.training.member.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "member.password-hashing")
+public class PasswordHashingProperties {
+
+    // 0 means one thread per available processor
+    private int threads = 0;
+
+    // Hashes waiting beyond this are rejected with 503
+    private int queueCapacity = 64;
+
+    private long retryAfterSeconds = 1;
+}
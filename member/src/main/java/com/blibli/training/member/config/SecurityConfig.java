@@ -1,29 +1,60 @@
 package com.blibli.training.member.config;
 
+import com.blibli.training.framework.dto.BaseResponse;
+import com.blibli.training.framework.exception.AuthenticationException;
+import com.blibli.training.framework.security.JwtUtils;
+import com.blibli.training.member.security.JwtAuthenticationFilter;
+import com.blibli.training.member.security.OffloadingPasswordEncoder;
+import com.blibli.training.member.security.RevokedTokenIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, MemberSecurityProperties properties,
+                                                   JwtUtils jwtUtils, RevokedTokenIndex revokedTokenIndex,
+                                                   MeterRegistry meterRegistry, ObjectMapper objectMapper) throws Exception {
+        http.csrf(AbstractHttpConfigurer::disable);
+
+        if (!properties.isJwtFilterEnabled()) {
+            // The gateway authenticates every request
+            http.authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+            return http.build();
+        }
+
         http
-                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new JwtAuthenticationFilter(jwtUtils, revokedTokenIndex, properties, meterRegistry),
+                        UsernamePasswordAuthenticationFilter.class)
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint((request, response, e) -> {
+                    response.setStatus(HttpStatus.UNAUTHORIZED.value());
+                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                    objectMapper.writeValue(response.getOutputStream(), BaseResponse.error(
+                            HttpStatus.UNAUTHORIZED.value(), new AuthenticationException("You don't have access to this page")));
+                }))
                 .authorizeHttpRequests(auth -> auth
-                        .anyRequest().permitAll());
+                        .requestMatchers(properties.getPublicPaths().toArray(String[]::new)).permitAll()
+                        .anyRequest().authenticated());
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        return new OffloadingPasswordEncoder(new BCryptPasswordEncoder(), properties, meterRegistry);
     }
 }
@@ -0,0 +1,15 @@
+package com.blibli.training.member.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "member.token")
+public class TokenProperties {
+
+    private Duration refreshTtl = Duration.ofDays(14);
+}
@@ -1,17 +1,26 @@
 package com.blibli.training.member.controller;
 
 import com.blibli.training.framework.dto.BaseResponse;
+import com.blibli.training.framework.security.JwtUtils;
 import com.blibli.training.member.dto.LoginRequest;
 import com.blibli.training.member.dto.LoginResponse;
+import com.blibli.training.member.dto.RefreshRequest;
+import com.blibli.training.member.dto.RevocationBatch;
 import com.blibli.training.member.dto.RegisterRequest;
 import com.blibli.training.member.entity.Member;
+import com.blibli.training.member.config.TokenProperties;
 import com.blibli.training.member.service.MemberService;
+import com.blibli.training.member.service.TokenStore;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.GetMapping;
 
@@ -21,7 +30,12 @@ import org.springframework.web.bind.annotation.GetMapping;
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final String REFRESH_COOKIE = "refresh_token";
+
     private final MemberService memberService;
+    private final TokenStore tokenStore;
+    private final TokenProperties tokenProperties;
+    private final JwtUtils jwtUtils;
 
     @PostMapping("/register")
     public BaseResponse<Member> register(@RequestBody RegisterRequest request) {
@@ -31,28 +45,72 @@ public class MemberController {
     @PostMapping("/login")
     public BaseResponse<LoginResponse> login(@RequestBody LoginRequest request, HttpServletResponse response) {
         LoginResponse loginResponse = memberService.login(request);
+        setTokenCookies(loginResponse, response);
+        return BaseResponse.success(loginResponse);
+    }
 
-        // Set Cookie
-        Cookie cookie = new Cookie("token", loginResponse.getToken());
-        cookie.setHttpOnly(true);
-        cookie.setSecure(false); // Set to true in production
-        cookie.setPath("/");
-        cookie.setMaxAge(24 * 60 * 60); // 1 day
-        response.addCookie(cookie);
-
+    @PostMapping("/refresh")
+    public BaseResponse<LoginResponse> refresh(@CookieValue(name = REFRESH_COOKIE, required = false) String refreshCookie,
+                                               @RequestBody(required = false) RefreshRequest request,
+                                               HttpServletResponse response) {
+        String refreshToken = request != null && request.getRefreshToken() != null
+                ? request.getRefreshToken() : refreshCookie;
+        LoginResponse loginResponse = memberService.refresh(refreshToken);
+        setTokenCookies(loginResponse, response);
         return BaseResponse.success(loginResponse);
     }
 
     @PostMapping("/logout")
-    public BaseResponse<Void> logout(HttpServletResponse response) {
+    public BaseResponse<Void> logout(@CookieValue(name = "token", required = false) String tokenCookie,
+                                     @CookieValue(name = REFRESH_COOKIE, required = false) String refreshCookie,
+                                     @RequestBody(required = false) RefreshRequest body,
+                                     HttpServletRequest request, HttpServletResponse response) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : tokenCookie;
+        String refreshToken = body != null && body.getRefreshToken() != null ? body.getRefreshToken() : refreshCookie;
+        memberService.logout(accessToken, refreshToken);
+
         Cookie cookie = new Cookie("token", null);
         cookie.setHttpOnly(true);
         cookie.setPath("/");
         cookie.setMaxAge(0);
         response.addCookie(cookie);
+
+        Cookie refresh = new Cookie(REFRESH_COOKIE, null);
+        refresh.setHttpOnly(true);
+        refresh.setPath("/");
+        refresh.setMaxAge(0);
+        response.addCookie(refresh);
         return BaseResponse.success(null);
     }
 
+    /**
+     * Polled by the gateway; blocked there for external callers.
+     */
+    @GetMapping("/internal/revocations")
+    public BaseResponse<RevocationBatch> getRevocations(@RequestParam(defaultValue = "0") long since) {
+        return BaseResponse.success(tokenStore.getRevocationsSince(since));
+    }
+
+    private void setTokenCookies(LoginResponse loginResponse, HttpServletResponse response) {
+        // Set Cookie
+        Cookie cookie = new Cookie("token", loginResponse.getToken());
+        cookie.setHttpOnly(true);
+        cookie.setSecure(false); // Set to true in production
+        cookie.setPath("/");
+        cookie.setMaxAge((int) (jwtUtils.getExpiration() / 1000)); // Same lifetime as the token
+        response.addCookie(cookie);
+
+        if (loginResponse.getRefreshToken() != null) {
+            Cookie refresh = new Cookie(REFRESH_COOKIE, loginResponse.getRefreshToken());
+            refresh.setHttpOnly(true);
+            refresh.setSecure(false); // Set to true in production
+            refresh.setPath("/");
+            refresh.setMaxAge((int) tokenProperties.getRefreshTtl().toSeconds());
+            response.addCookie(refresh);
+        }
+    }
+
     @GetMapping("/hello")
     public String helloWorld() {
         return new String("Hello World");
@@ -0,0 +1,53 @@
+package com.blibli.training.member.controller;
+
+import com.blibli.training.framework.dto.BaseResponse;
+import com.blibli.training.framework.exception.AuthenticationException;
+import com.blibli.training.member.config.MemberImportProperties;
+import com.blibli.training.member.dto.MemberImportResult;
+import com.blibli.training.member.importer.MemberImporter;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Seeds members in bulk. Only enabled with member.import.enabled, and blocked at the gateway like
+ * every other /internal path. The service port may still be reachable directly, so every request must
+ * also carry member.import.admin-token in the X-Admin-Token header.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "member.import", name = "enabled", havingValue = "true")
+public class MemberImportController {
+
+    private static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final MemberImporter memberImporter;
+    private final MemberImportProperties properties;
+
+    @PostMapping(value = "/internal/members/import", consumes = "application/x-ndjson")
+    public BaseResponse<MemberImportResult> importMembers(@RequestHeader(name = ADMIN_TOKEN_HEADER, required = false) String adminToken,
+                                                          @RequestParam(defaultValue = "false") boolean shareHashes,
+                                                          HttpServletRequest request) throws IOException {
+        if (!isAdmin(adminToken)) {
+            throw new AuthenticationException("You don't have access to this page");
+        }
+        return BaseResponse.success(memberImporter.importMembers(request.getInputStream(), shareHashes));
+    }
+
+    private boolean isAdmin(String adminToken) {
+        String expected = properties.getAdminToken();
+        if (expected == null || expected.isBlank() || adminToken == null) {
+            return false;
+        }
+        // Constant time, so the token cannot be guessed byte by byte from response times
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), adminToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
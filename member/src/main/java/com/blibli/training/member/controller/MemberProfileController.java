@@ -0,0 +1,39 @@
+package com.blibli.training.member.controller;
+
+import com.blibli.training.framework.dto.BaseResponse;
+import com.blibli.training.member.dto.MemberProfile;
+import com.blibli.training.member.service.MemberProfileService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Member lookups for other services. Lives under {@code /internal} so the gateway never routes it: profiles carry
+ * emails, and member ids are sequential.
+ */
+@RestController
+@RequestMapping("/internal/members")
+@RequiredArgsConstructor
+public class MemberProfileController {
+
+    private final MemberProfileService memberProfileService;
+
+    @GetMapping("/{id}")
+    public BaseResponse<MemberProfile> getMember(@PathVariable Long id) {
+        return BaseResponse.success(memberProfileService.getProfile(id));
+    }
+
+    /**
+     * Resolves several members in one call. Unknown ids are left out of the result.
+     */
+    @PostMapping("/batch-get")
+    public BaseResponse<List<MemberProfile>> batchGet(@RequestBody List<Long> ids) {
+        return BaseResponse.success(memberProfileService.getProfiles(ids));
+    }
+}
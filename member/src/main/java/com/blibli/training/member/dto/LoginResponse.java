@@ -8,4 +8,5 @@ import lombok.Data;
 public class LoginResponse {
     private String token;
     private Long userId;
+    private String refreshToken;
 }
@@ -0,0 +1,22 @@
+package com.blibli.training.member.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberImportResult {
+    private long received;
+    private long imported;
+    // Email already registered
+    private long duplicates;
+    // Unreadable lines or lines without an email and password
+    private long rejected;
+    private long durationMs;
+    // First few rejected lines, as "line N: reason"
+    private List<String> errors;
+}
@@ -0,0 +1,16 @@
+package com.blibli.training.member.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Public view of a member for other services; never carries the password hash.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberProfile {
+    private Long id;
+    private String email;
+}
@@ -0,0 +1,14 @@
+package com.blibli.training.member.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Revocation {
+    private String jti;
+    // epoch millis; the entry can be dropped after this
+    private long expiresAt;
+}
@@ -0,0 +1,16 @@
+package com.blibli.training.member.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationBatch {
+    // Pass back as "since" on the next poll
+    private long serverTime;
+    private List<Revocation> revocations;
+}
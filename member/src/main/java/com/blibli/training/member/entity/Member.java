@@ -1,26 +1,33 @@
 package com.blibli.training.member.entity;
 
+import com.blibli.training.framework.persistence.PooledSequence;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Entity
-@Table(name = "members")
+@Table(name = "members", indexes = @Index(name = Member.EMAIL_INDEX, columnList = "email", unique = true))
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Member {
+    public static final String EMAIL_INDEX = "uk_members_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "members_seq")
     private Long id;
 
     private String email;
     private String password; // hashed
+
+    // Lets other instances pick up new registrations; null for members registered before it was added
+    private Instant createdAt;
 }
@@ -0,0 +1,49 @@
+package com.blibli.training.member.importer;
+
+import com.blibli.training.framework.persistence.SequenceBlockAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * Inserts a chunk of members with a single statement over unnested arrays, which costs one round trip
+ * per chunk and, unlike a rewritten JDBC batch, reports how many rows were actually inserted.
+ */
+@Component
+@ConditionalOnProperty(prefix = "member.import", name = "enabled", havingValue = "true")
+public class MemberBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO members (id, email, password, created_at) "
+            + "SELECT *, CURRENT_TIMESTAMP FROM unnest(?::bigint[], ?::varchar[], ?::varchar[]) "
+            + "ON CONFLICT (email) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceBlockAllocator memberIds;
+
+    public MemberBatchWriter(JdbcTemplate jdbcTemplate,
+                             @Value("${spring.jpa.properties.training.id.allocation-size:50}") int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.memberIds = new SequenceBlockAllocator(jdbcTemplate, "members_seq", allocationSize);
+    }
+
+    /**
+     * @return number of members inserted; emails that already exist are skipped
+     */
+    public int insert(List<String> emails, List<String> passwordHashes) {
+        Long[] ids = new Long[emails.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = memberIds.next();
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setArray(2, connection.createArrayOf("varchar", emails.toArray()));
+            statement.setArray(3, connection.createArrayOf("varchar", passwordHashes.toArray()));
+            return statement;
+        });
+    }
+}
@@ -0,0 +1,158 @@
+package com.blibli.training.member.importer;
+
+import com.blibli.training.member.config.MemberImportProperties;
+import com.blibli.training.member.dto.MemberImportResult;
+import com.blibli.training.member.security.KnownEmailFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk-loads members from NDJSON, one {@code {"email": ..., "password": ...}} object per line.
+ * A line may carry a bcrypt {@code passwordHash} instead of a password, which skips hashing.
+ * <p>
+ * Lines are processed in chunks: passwords of a chunk are hashed on a fork-join pool spanning all
+ * cores, then the chunk is inserted with {@link MemberBatchWriter}. Hashing bypasses the bounded
+ * request hashing pool, so an import competes with logins for CPU.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "member.import", name = "enabled", havingValue = "true")
+public class MemberImporter {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}$");
+
+    private final MemberBatchWriter batchWriter;
+    private final KnownEmailFilter knownEmailFilter;
+    private final MemberImportProperties properties;
+    private final ObjectMapper objectMapper;
+    private final PasswordEncoder bcrypt = new BCryptPasswordEncoder();
+
+    public MemberImporter(MemberBatchWriter batchWriter, KnownEmailFilter knownEmailFilter,
+                          MemberImportProperties properties, ObjectMapper objectMapper) {
+        this.batchWriter = batchWriter;
+        this.knownEmailFilter = knownEmailFilter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param shareHashes hash each distinct password once and reuse the hash for every member with that
+     *                    password. Identical hashes reveal identical passwords, so use it for test data only.
+     */
+    public MemberImportResult importMembers(InputStream ndjson, boolean shareHashes) throws IOException {
+        long started = System.currentTimeMillis();
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        Map<String, String> sharedHashes = shareHashes ? new ConcurrentHashMap<>() : null;
+        MemberImportResult result = new MemberImportResult(0, 0, 0, 0, 0, new ArrayList<>());
+
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            List<ImportRecord> chunk = new ArrayList<>(properties.getChunkSize());
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setReceived(result.getReceived() + 1);
+                ImportRecord record = parse(line, lineNumber, result);
+                if (record != null) {
+                    chunk.add(record);
+                }
+                if (chunk.size() >= properties.getChunkSize()) {
+                    writeChunk(chunk, pool, sharedHashes, result);
+                    chunk = new ArrayList<>(properties.getChunkSize());
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, pool, sharedHashes, result);
+            }
+        }
+
+        result.setDurationMs(System.currentTimeMillis() - started);
+        log.info("Imported {} of {} members in {} ms ({} duplicates, {} rejected)", result.getImported(),
+                result.getReceived(), result.getDurationMs(), result.getDuplicates(), result.getRejected());
+        return result;
+    }
+
+    private ImportRecord parse(String line, long lineNumber, MemberImportResult result) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            String email = node.path("email").asText(null);
+            String password = node.path("password").asText(null);
+            String passwordHash = node.path("passwordHash").asText(null);
+            if (email == null || email.isBlank()) {
+                reject(result, lineNumber, "missing email");
+                return null;
+            }
+            if (passwordHash != null) {
+                if (!BCRYPT_HASH.matcher(passwordHash).matches()) {
+                    reject(result, lineNumber, "passwordHash is not a bcrypt hash");
+                    return null;
+                }
+                return new ImportRecord(email, null, passwordHash);
+            }
+            if (password == null || password.isEmpty()) {
+                reject(result, lineNumber, "missing password");
+                return null;
+            }
+            return new ImportRecord(email, password, null);
+        } catch (IOException e) {
+            reject(result, lineNumber, "invalid JSON");
+            return null;
+        }
+    }
+
+    private void writeChunk(List<ImportRecord> chunk, ForkJoinPool pool, Map<String, String> sharedHashes,
+                            MemberImportResult result) {
+        List<String> hashes = pool.submit(() -> chunk.parallelStream()
+                .map(record -> hash(record, sharedHashes))
+                .toList()).join();
+        List<String> emails = chunk.stream().map(ImportRecord::email).toList();
+
+        int inserted = batchWriter.insert(emails, hashes);
+        emails.forEach(knownEmailFilter::add);
+        result.setImported(result.getImported() + inserted);
+        result.setDuplicates(result.getDuplicates() + chunk.size() - inserted);
+    }
+
+    private String hash(ImportRecord record, Map<String, String> sharedHashes) {
+        if (record.passwordHash() != null) {
+            return record.passwordHash();
+        }
+        if (sharedHashes != null) {
+            return sharedHashes.computeIfAbsent(record.password(), bcrypt::encode);
+        }
+        return bcrypt.encode(record.password());
+    }
+
+    private static void reject(MemberImportResult result, long lineNumber, String reason) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    private record ImportRecord(String email, String password, String passwordHash) {
+    }
+}
@@ -1,12 +1,31 @@
 package com.blibli.training.member.repository;
 
+import com.blibli.training.member.dto.MemberProfile;
 import com.blibli.training.member.entity.Member;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
     Optional<Member> findByEmail(String email);
+
+    /**
+     * Must be consumed inside a transaction and closed.
+     */
+    @Query("SELECT m.email FROM Member m")
+    Stream<String> streamAllEmails();
+
+    @Query("SELECT m.email FROM Member m WHERE m.createdAt >= :since")
+    List<String> findEmailsRegisteredSince(@Param("since") Instant since);
+
+    @Query("SELECT new com.blibli.training.member.dto.MemberProfile(m.id, m.email) FROM Member m WHERE m.id IN :ids")
+    List<MemberProfile> findProfilesByIdIn(@Param("ids") Collection<Long> ids);
 }
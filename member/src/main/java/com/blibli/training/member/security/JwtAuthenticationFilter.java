@@ -0,0 +1,121 @@
+package com.blibli.training.member.security;
+
+import com.blibli.training.framework.security.JwtUtils;
+import com.blibli.training.member.config.MemberSecurityProperties;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authenticates requests from the bearer header or the {@code token} cookie, the same way the gateway does.
+ * <p>
+ * Verified tokens are cached, so a repeated token costs a map lookup instead of a signature check.
+ * Revocation is checked on every request against {@link RevokedTokenIndex}, so a cached token stops
+ * working as soon as its revocation is loaded. Requests without a valid token are left unauthenticated
+ * and rejected by the authorization rules, except on public paths.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private final JwtUtils jwtUtils;
+    private final RevokedTokenIndex revokedTokenIndex;
+    private final MemberSecurityProperties properties;
+    private final Map<String, VerifiedToken> cache = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, RevokedTokenIndex revokedTokenIndex,
+                                   MemberSecurityProperties properties, MeterRegistry meterRegistry) {
+        this.jwtUtils = jwtUtils;
+        this.revokedTokenIndex = revokedTokenIndex;
+        this.properties = properties;
+        this.hits = Counter.builder("member.security.token.cache").tag("result", "hit")
+                .description("Token verifications served from the verified-token cache").register(meterRegistry);
+        this.misses = Counter.builder("member.security.token.cache").tag("result", "miss")
+                .description("Token verifications served from the verified-token cache").register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = extractToken(request);
+        if (token != null) {
+            VerifiedToken verified = verify(token);
+            if (verified != null && !revokedTokenIndex.isRevoked(verified.jti())) {
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(verified.userId(), null, List.of());
+                authentication.setDetails(verified.email());
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = cache.get(token);
+        if (cached != null && cached.cachedUntil() > now) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        Claims claims;
+        try {
+            claims = jwtUtils.getClaimFromToken(token, c -> c);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        Object userId = claims.get("userId");
+        if (userId == null) {
+            return null;
+        }
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : now;
+        VerifiedToken verified = new VerifiedToken(String.valueOf(userId), claims.getSubject(), claims.getId(),
+                Math.min(expiresAt, now + properties.getTokenCacheTtl().toMillis()));
+        put(token, verified, now);
+        return verified;
+    }
+
+    private void put(String token, VerifiedToken verified, long now) {
+        if (cache.size() >= properties.getTokenCacheSize()) {
+            cache.values().removeIf(entry -> entry.cachedUntil() <= now);
+            if (cache.size() >= properties.getTokenCacheSize()) {
+                cache.clear();
+            }
+        }
+        cache.put(token, verified);
+    }
+
+    private static String extractToken(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if ("token".equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private record VerifiedToken(String userId, String email, String jti, long cachedUntil) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.blibli.training.member.security;
+
+import com.blibli.training.member.config.LoginProperties;
+import com.blibli.training.member.repository.MemberRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of registered emails, used to reject logins for unknown emails without a database query.
+ * <p>
+ * The filter is rebuilt from the members table at startup and every {@code refresh-interval}. Emails
+ * registered through this instance are added immediately, and those registered on other instances are read
+ * every {@code catch-up-interval} by their creation time, so such a member may be refused for that long.
+ * With {@code reject-unknown} off, emails the filter has never seen go to the database instead. Until the first
+ * build finishes, or when the filter is disabled, every email is reported as possibly known.
+ */
+@Slf4j
+@Component
+public class KnownEmailFilter {
+
+    // Re-reads registrations committed late by a slow transaction
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofSeconds(30);
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final LoginProperties.EmailFilter properties;
+
+    private volatile Bits bits;
+    // Registrations during a rebuild go to both filters so none is lost when the new one is swapped in
+    private volatile Bits building;
+    // Registrations from this time on still have to be read by the next catch-up
+    private volatile Instant caughtUpTo;
+
+    private final Counter rejected;
+    private final Counter passed;
+    private final Counter unverified;
+    private final Counter falsePositives;
+
+    public KnownEmailFilter(MemberRepository memberRepository, PlatformTransactionManager transactionManager,
+                            LoginProperties properties, MeterRegistry meterRegistry) {
+        this.memberRepository = memberRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties.getEmailFilter();
+
+        this.rejected = Counter.builder("member.login.email.filter").tag("result", "rejected")
+                .description("Login email lookups answered by the known-email filter").register(meterRegistry);
+        this.passed = Counter.builder("member.login.email.filter").tag("result", "passed")
+                .description("Login email lookups answered by the known-email filter").register(meterRegistry);
+        this.unverified = Counter.builder("member.login.email.filter").tag("result", "unverified")
+                .description("Login email lookups answered by the known-email filter").register(meterRegistry);
+        this.falsePositives = Counter.builder("member.login.email.filter").tag("result", "false_positive")
+                .description("Login email lookups answered by the known-email filter").register(meterRegistry);
+        Gauge.builder("member.login.email.filter.fpp", this, KnownEmailFilter::expectedFalsePositiveRate)
+                .description("Estimated false positive rate of the known-email filter")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${member.login.email-filter.refresh-interval:PT6H}")
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant startedAt = Instant.now();
+        long count = memberRepository.count();
+        Bits next = new Bits(Math.max(properties.getExpectedEmails(), count * 2), properties.getFalsePositiveRate());
+        building = next;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = memberRepository.streamAllEmails()) {
+                    emails.forEach(next::add);
+                }
+            });
+            bits = next;
+            caughtUpTo = startedAt;
+        } finally {
+            building = null;
+        }
+        log.debug("Known-email filter rebuilt with {} emails", count);
+    }
+
+    @Scheduled(fixedDelayString = "${member.login.email-filter.catch-up-interval:PT5S}")
+    public void catchUp() {
+        Bits current = bits;
+        Instant since = caughtUpTo;
+        if (!properties.isEnabled() || current == null || since == null) {
+            return;
+        }
+        Instant startedAt = Instant.now();
+        try {
+            List<String> emails = memberRepository.findEmailsRegisteredSince(since.minus(CATCH_UP_OVERLAP));
+            emails.forEach(current::add);
+            caughtUpTo = startedAt;
+        } catch (RuntimeException e) {
+            log.warn("Failed to read new registrations into the known-email filter: {}", e.getMessage());
+        }
+    }
+
+    public void add(String email) {
+        Bits current = bits;
+        if (current != null) {
+            current.add(email);
+        }
+        Bits next = building;
+        if (next != null) {
+            next.add(email);
+        }
+    }
+
+    /**
+     * @return false only if the email is definitely not registered and the filter may reject it
+     */
+    public boolean mightContain(String email) {
+        Bits current = bits;
+        if (current == null || email == null) {
+            return true;
+        }
+        if (current.mightContain(email)) {
+            passed.increment();
+            return true;
+        }
+        if (properties.isRejectUnknown()) {
+            rejected.increment();
+            return false;
+        }
+        unverified.increment();
+        return true;
+    }
+
+    /**
+     * Called when an email passed the filter but no member was found.
+     */
+    public void recordFalsePositive(String email) {
+        Bits current = bits;
+        // Emails the filter had never seen were passed on unverified, not mistaken for members
+        if (current != null && email != null && current.mightContain(email)) {
+            falsePositives.increment();
+        }
+    }
+
+    public double expectedFalsePositiveRate() {
+        Bits current = bits;
+        return current == null ? 0 : current.expectedFalsePositiveRate();
+    }
+
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+        private final AtomicLong bitsSet = new AtomicLong();
+
+        private Bits(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((m + 63) / 64));
+            this.size = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) size / n * Math.log(2)));
+        }
+
+        private void add(String email) {
+            long[] hash = hash(email);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash[0] + i * hash[1], size);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, current, current | mask));
+                if ((current & mask) == 0) {
+                    bitsSet.incrementAndGet();
+                }
+            }
+        }
+
+        private boolean mightContain(String email) {
+            long[] hash = hash(email);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash[0] + i * hash[1], size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private double expectedFalsePositiveRate() {
+            return Math.pow((double) bitsSet.get() / size, hashes);
+        }
+
+        // Two independent 64-bit hashes combined as h1 + i * h2 (Kirsch-Mitzenmacher)
+        private static long[] hash(String email) {
+            long h1 = 0xcbf29ce484222325L;
+            long h2 = 0x9e3779b97f4a7c15L;
+            for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+                h1 = (h1 ^ b) * 0x100000001b3L;
+                h2 = Long.rotateLeft(h2 ^ b, 31) * 0xc2b2ae3d27d4eb4fL;
+            }
+            return new long[]{mix(h1), mix(h2) | 1};
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.blibli.training.member.security;
+
+import com.blibli.training.member.config.MemberSecurityProperties;
+import com.blibli.training.member.dto.RevocationBatch;
+import com.blibli.training.member.service.TokenStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the revoked access token ids, refreshed from {@link TokenStore} so that
+ * {@link JwtAuthenticationFilter} never queries the database per request. Only kept up to date
+ * while the filter is enabled.
+ */
+@Slf4j
+@Component
+public class RevokedTokenIndex {
+
+    // Re-reads revocations committed late by a slow transaction
+    private static final long OVERLAP_MILLIS = 30_000;
+
+    private final TokenStore tokenStore;
+    private final MemberSecurityProperties properties;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile long cursor;
+
+    public RevokedTokenIndex(TokenStore tokenStore, MemberSecurityProperties properties) {
+        this.tokenStore = tokenStore;
+        this.properties = properties;
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${member.security.revocation-refresh-interval:PT5S}")
+    public void refresh() {
+        if (!properties.isJwtFilterEnabled()) {
+            return;
+        }
+        try {
+            RevocationBatch batch = tokenStore.getRevocationsSince(Math.max(0, cursor - OVERLAP_MILLIS));
+            batch.getRevocations().forEach(revocation ->
+                    revoked.merge(revocation.getJti(), revocation.getExpiresAt(), Math::max));
+            cursor = batch.getServerTime();
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh revoked tokens: {}", e.getMessage());
+        }
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+}
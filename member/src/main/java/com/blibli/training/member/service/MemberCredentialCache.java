@@ -0,0 +1,62 @@
+package com.blibli.training.member.service;
+
+import com.blibli.training.member.config.LoginProperties;
+import com.blibli.training.member.entity.Member;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived, bounded cache of email to member (id and password hash) for repeated logins.
+ */
+@Component
+public class MemberCredentialCache {
+
+    private final LoginProperties properties;
+    private final Map<String, CachedMember> cache = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public MemberCredentialCache(LoginProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.hits = Counter.builder("member.login.cache").tag("result", "hit")
+                .description("Login member lookups served from the credential cache").register(meterRegistry);
+        this.misses = Counter.builder("member.login.cache").tag("result", "miss")
+                .description("Login member lookups served from the credential cache").register(meterRegistry);
+        Gauge.builder("member.login.cache.size", cache, Map::size)
+                .description("Entries in the login credential cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the cached member, or null if absent or expired
+     */
+    public Member get(String email) {
+        CachedMember cached = cache.get(email);
+        if (cached == null || cached.expiresAt <= System.currentTimeMillis()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.member;
+    }
+
+    public void put(String email, Member member) {
+        long now = System.currentTimeMillis();
+        if (cache.size() >= properties.getCacheMaxSize()) {
+            cache.values().removeIf(cached -> cached.expiresAt <= now);
+            if (cache.size() >= properties.getCacheMaxSize()) {
+                cache.clear();
+            }
+        }
+        cache.put(email, new CachedMember(member, now + properties.getCacheTtl().toMillis()));
+    }
+
+    private record CachedMember(Member member, long expiresAt) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.blibli.training.member.service;
+
+import com.blibli.training.member.config.MemberProfileProperties;
+import com.blibli.training.member.dto.MemberProfile;
+import com.blibli.training.member.repository.MemberRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves member ids to profiles for other services. Cache misses of a batch are loaded with a
+ * single IN query; unknown ids are not cached, so a member registered later is found right away.
+ */
+@Service
+public class MemberProfileService {
+
+    private final MemberRepository memberRepository;
+    private final MemberProfileProperties properties;
+    private final Map<Long, CachedProfile> cache = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public MemberProfileService(MemberRepository memberRepository, MemberProfileProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.memberRepository = memberRepository;
+        this.properties = properties;
+        this.hits = Counter.builder("member.profile.cache").tag("result", "hit")
+                .description("Member profile lookups served from the cache").register(meterRegistry);
+        this.misses = Counter.builder("member.profile.cache").tag("result", "miss")
+                .description("Member profile lookups served from the cache").register(meterRegistry);
+        Gauge.builder("member.profile.cache.size", cache, Map::size)
+                .description("Entries in the member profile cache")
+                .register(meterRegistry);
+    }
+
+    public MemberProfile getProfile(Long id) {
+        List<MemberProfile> profiles = getProfiles(List.of(id));
+        if (profiles.isEmpty()) {
+            throw new RuntimeException("Member not found");
+        }
+        return profiles.get(0);
+    }
+
+    /**
+     * @return profiles in the order the ids were given, without duplicates; unknown ids are left out
+     */
+    public List<MemberProfile> getProfiles(Collection<Long> ids) {
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        if (unique.size() > properties.getMaxBatchSize()) {
+            throw new RuntimeException("At most " + properties.getMaxBatchSize() + " ids per request");
+        }
+
+        long now = System.currentTimeMillis();
+        Map<Long, MemberProfile> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : unique) {
+            CachedProfile cached = cache.get(id);
+            if (cached != null && cached.expiresAt > now) {
+                found.put(id, cached.profile);
+            } else {
+                missing.add(id);
+            }
+        }
+        hits.increment(found.size());
+        misses.increment(missing.size());
+
+        if (!missing.isEmpty()) {
+            for (MemberProfile profile : memberRepository.findProfilesByIdIn(missing)) {
+                found.put(profile.getId(), profile);
+                put(profile, now);
+            }
+        }
+
+        List<MemberProfile> result = new ArrayList<>(found.size());
+        for (Long id : unique) {
+            MemberProfile profile = found.get(id);
+            if (profile != null) {
+                result.add(profile);
+            }
+        }
+        return result;
+    }
+
+    private void put(MemberProfile profile, long now) {
+        if (cache.size() >= properties.getCacheMaxSize()) {
+            cache.values().removeIf(cached -> cached.expiresAt <= now);
+            if (cache.size() >= properties.getCacheMaxSize()) {
+                cache.clear();
+            }
+        }
+        cache.put(profile.getId(), new CachedProfile(profile, now + properties.getCacheTtl().toMillis()));
+    }
+
+    private record CachedProfile(MemberProfile profile, long expiresAt) {
+    }
+}
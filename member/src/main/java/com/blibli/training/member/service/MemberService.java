@@ -6,13 +6,22 @@ import com.blibli.training.member.dto.LoginRequest;
 import com.blibli.training.member.dto.LoginResponse;
 import com.blibli.training.member.dto.RegisterRequest;
 import com.blibli.training.member.entity.Member;
+import com.blibli.training.member.entity.RefreshToken;
 import com.blibli.training.member.repository.MemberRepository;
+import com.blibli.training.member.security.KnownEmailFilter;
 import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -21,33 +30,110 @@ public class MemberService {
     private final MemberRepository memberRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final KnownEmailFilter knownEmailFilter;
+    private final MemberCredentialCache credentialCache;
+    private final TokenStore tokenStore;
 
-    public Member register(RegisterRequest request) {
-        if (memberRepository.findByEmail(request.getEmail()).isPresent()) {
-            throw new RuntimeException("Email already exists");
-        }
+    // Verified against for unknown emails, so they cost as much as a wrong password
+    private String dummyPasswordHash;
+
+    @PostConstruct
+    void createDummyPasswordHash() {
+        dummyPasswordHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
 
+    /**
+     * Registers with a single insert; a duplicate email is detected by the unique index on members.email.
+     */
+    public Member register(RegisterRequest request) {
         Member member = Member.builder()
                 .password(passwordEncoder.encode(request.getPassword()))
                 .email(request.getEmail())
+                .createdAt(Instant.now())
                 .build();
 
-        return memberRepository.save(member);
+        try {
+            Member saved = memberRepository.save(member);
+            knownEmailFilter.add(saved.getEmail());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEmail(e)) {
+                throw new RuntimeException("Email already exists");
+            }
+            throw e;
+        }
     }
 
     public LoginResponse login(LoginRequest request) {
-        Member member = memberRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new AuthenticationException("Invalid username or password"));
+        Member member = findForLogin(request.getEmail());
+        if (member == null) {
+            passwordEncoder.matches(request.getPassword(), dummyPasswordHash);
+            throw new AuthenticationException("Invalid username or password");
+        }
 
         if (!passwordEncoder.matches(request.getPassword(), member.getPassword())) {
             throw new AuthenticationException("Invalid username or password");
         }
 
+        return issueTokens(member.getId(), member.getEmail());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     */
+    public LoginResponse refresh(String refreshToken) {
+        RefreshToken stored = tokenStore.consumeRefreshToken(refreshToken);
+        return issueTokens(stored.getMemberId(), stored.getEmail());
+    }
+
+    /**
+     * Revokes whichever of the tokens are given. Invalid or expired access tokens are ignored.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        if (refreshToken != null) {
+            tokenStore.revokeRefreshToken(refreshToken);
+        }
+        if (accessToken != null && jwtUtils.validateToken(accessToken)) {
+            Claims claims = jwtUtils.getClaimFromToken(accessToken, c -> c);
+            if (claims.getId() != null) {
+                tokenStore.revokeAccessToken(claims.getId(), claims.getExpiration().toInstant());
+            }
+        }
+    }
+
+    private LoginResponse issueTokens(Long memberId, String email) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("email", member.getEmail());
-        claims.put("userId", member.getId());
+        claims.put("email", email);
+        claims.put("userId", memberId);
+
+        String token = jwtUtils.generateToken(String.valueOf(email), claims);
+        return new LoginResponse(token, memberId, tokenStore.issueRefreshToken(memberId, email));
+    }
 
-        String token = jwtUtils.generateToken(String.valueOf(member.getEmail()), claims);
-        return new LoginResponse(token, member.getId());
+    private Member findForLogin(String email) {
+        if (!knownEmailFilter.mightContain(email)) {
+            return null;
+        }
+        Member cached = credentialCache.get(email);
+        if (cached != null) {
+            return cached;
+        }
+        Member member = memberRepository.findByEmail(email).orElse(null);
+        if (member == null) {
+            knownEmailFilter.recordFalsePositive(email);
+        } else {
+            credentialCache.put(email, member);
+        }
+        return member;
+    }
+
+    private static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName() != null ? violation.getConstraintName() : violation.getMessage();
+                return name != null && name.toLowerCase(Locale.ROOT).contains(Member.EMAIL_INDEX);
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,111 @@
+package com.blibli.training.member.service;
+
+import com.blibli.training.framework.exception.AuthenticationException;
+import com.blibli.training.member.config.TokenProperties;
+import com.blibli.training.member.dto.Revocation;
+import com.blibli.training.member.dto.RevocationBatch;
+import com.blibli.training.member.entity.RefreshToken;
+import com.blibli.training.member.entity.RevokedToken;
+import com.blibli.training.member.repository.RefreshTokenRepository;
+import com.blibli.training.member.repository.RevokedTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Refresh tokens and the list of revoked access tokens.
+ * <p>
+ * Refresh tokens are opaque, single-use and stored only as a SHA-256 hash. Revoked access tokens are kept
+ * by jti until they would have expired anyway; the gateway polls {@link #getRevocationsSince(long)}.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenStore {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenProperties properties;
+
+    public String issueRefreshToken(Long memberId, String email) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .id(hash(token))
+                .memberId(memberId)
+                .email(email)
+                .expiresAt(Instant.now().plus(properties.getRefreshTtl()))
+                .build());
+        return token;
+    }
+
+    /**
+     * Looks up and deletes the refresh token, so it can be exchanged only once.
+     */
+    @Transactional
+    public RefreshToken consumeRefreshToken(String token) {
+        if (token == null || token.isBlank()) {
+            throw new AuthenticationException("Invalid refresh token");
+        }
+        String id = hash(token);
+        RefreshToken stored = refreshTokenRepository.findById(id).orElse(null);
+        // The conditional delete decides between two concurrent refreshes with the same token
+        if (stored == null || refreshTokenRepository.deleteByIdAndCount(id) == 0
+                || stored.getExpiresAt().isBefore(Instant.now())) {
+            throw new AuthenticationException("Invalid refresh token");
+        }
+        return stored;
+    }
+
+    @Transactional
+    public void revokeRefreshToken(String token) {
+        refreshTokenRepository.deleteByIdAndCount(hash(token));
+    }
+
+    public void revokeAccessToken(String jti, Instant expiresAt) {
+        if (expiresAt.isAfter(Instant.now())) {
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .id(jti)
+                    .expiresAt(expiresAt)
+                    .revokedAt(Instant.now())
+                    .build());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public RevocationBatch getRevocationsSince(long sinceMillis) {
+        Instant now = Instant.now();
+        return new RevocationBatch(now.toEpochMilli(), revokedTokenRepository
+                .findByRevokedAtGreaterThanEqualAndExpiresAtAfter(Instant.ofEpochMilli(sinceMillis), now).stream()
+                .map(revoked -> new Revocation(revoked.getId(), revoked.getExpiresAt().toEpochMilli()))
+                .toList());
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "PT10M", initialDelayString = "PT1M")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        refreshTokenRepository.deleteExpired(now);
+        revokedTokenRepository.deleteExpired(now);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,2 @@
+-- Read by every instance's known-email filter every few seconds to pick up new registrations
+CREATE INDEX IF NOT EXISTS idx_members_created_at ON members (created_at);
@@ -0,0 +1,7 @@
+-- Registration used to check the email with a SELECT before inserting, so concurrent sign-ups could
+-- create duplicates and keep the unique index from being built. The oldest account keeps the email,
+-- later ones are moved to an address nobody can log in with; no rows are deleted.
+-- Runs on every startup and does nothing once the index exists.
+UPDATE members m SET email = m.email || '.duplicate-' || m.id
+WHERE EXISTS (SELECT 1 FROM members older WHERE older.email = m.email AND older.id < m.id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_members_email ON members (email);
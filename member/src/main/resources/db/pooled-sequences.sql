@@ -0,0 +1,4 @@
+-- Members used to be keyed by an IDENTITY column. Hibernate (ddl-auto: update) creates the
+-- pooled sequence, this moves it past any ids handed out before the switch.
+-- Runs on every startup and never moves the sequence backwards.
+SELECT setval('members_seq', GREATEST((SELECT last_value FROM members_seq), (SELECT COALESCE(MAX(id), 0) FROM members)));
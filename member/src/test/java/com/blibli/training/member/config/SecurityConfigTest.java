@@ -0,0 +1,85 @@
+package com.blibli.training.member.config;
+
+import com.blibli.training.framework.security.JwtUtils;
+import com.blibli.training.member.controller.MemberController;
+import com.blibli.training.member.security.RevokedTokenIndex;
+import com.blibli.training.member.service.MemberService;
+import com.blibli.training.member.service.TokenStore;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+import java.util.function.Function;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = MemberController.class, properties = "member.security.jwt-filter-enabled=true")
+@Import({SecurityConfig.class, MemberSecurityProperties.class, PasswordHashingProperties.class,
+        TokenProperties.class, SecurityConfigTest.TestBeans.class})
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MemberService memberService;
+
+    @MockBean
+    private TokenStore tokenStore;
+
+    @MockBean
+    private JwtUtils jwtUtils;
+
+    @MockBean
+    private RevokedTokenIndex revokedTokenIndex;
+
+    @TestConfiguration
+    static class TestBeans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    void protectedPath_WithoutToken_ShouldReturnUnauthorized() throws Exception {
+        mockMvc.perform(get("/hello-protected"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value(401));
+    }
+
+    @Test
+    void publicPath_WithoutToken_ShouldBeAllowed() throws Exception {
+        mockMvc.perform(get("/hello"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void protectedPath_WithValidToken_ShouldBeAllowed() throws Exception {
+        // Given
+        Claims claims = mock(Claims.class);
+        when(claims.get("userId")).thenReturn(1);
+        when(claims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 60_000));
+        when(jwtUtils.getClaimFromToken(eq("valid.token"), any(Function.class)))
+                .thenAnswer(invocation -> invocation.<Function<Claims, Object>>getArgument(1).apply(claims));
+
+        // When & Then
+        mockMvc.perform(get("/hello-protected").header(HttpHeaders.AUTHORIZATION, "Bearer valid.token"))
+                .andExpect(status().isOk());
+    }
+}
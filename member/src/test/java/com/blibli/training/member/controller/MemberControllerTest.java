@@ -1,20 +1,29 @@
 package com.blibli.training.member.controller;
 
 import com.blibli.training.framework.exception.AuthenticationException;
+import com.blibli.training.framework.security.JwtUtils;
 import com.blibli.training.member.dto.LoginRequest;
 import com.blibli.training.member.dto.LoginResponse;
 import com.blibli.training.member.dto.RegisterRequest;
 import com.blibli.training.member.entity.Member;
+import com.blibli.training.member.config.TokenProperties;
+import com.blibli.training.member.dto.Revocation;
+import com.blibli.training.member.dto.RevocationBatch;
 import com.blibli.training.member.service.MemberService;
+import com.blibli.training.member.service.TokenStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import jakarta.servlet.http.Cookie;
+
+import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +34,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(controllers = MemberController.class,
         excludeAutoConfiguration = {org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class})
+@Import(TokenProperties.class)
 class MemberControllerTest {
 
     @Autowired
@@ -36,6 +46,12 @@ class MemberControllerTest {
     @MockBean
     private MemberService memberService;
 
+    @MockBean
+    private TokenStore tokenStore;
+
+    @MockBean
+    private JwtUtils jwtUtils;
+
     private Member testMember;
     private RegisterRequest registerRequest;
     private LoginRequest loginRequest;
@@ -57,7 +73,8 @@ class MemberControllerTest {
         loginRequest.setEmail("test@example.com");
         loginRequest.setPassword("password123");
 
-        loginResponse = new LoginResponse("jwt.token.here", 1L);
+        loginResponse = new LoginResponse("jwt.token.here", 1L, "refresh.token.here");
+        when(jwtUtils.getExpiration()).thenReturn(15 * 60 * 1000L);
     }
 
     @Test
@@ -112,7 +129,7 @@ class MemberControllerTest {
                 .andExpect(cookie().exists("token"))
                 .andExpect(cookie().httpOnly("token", true))
                 .andExpect(cookie().path("token", "/"))
-                .andExpect(cookie().maxAge("token", 24 * 60 * 60))
+                .andExpect(cookie().maxAge("token", 15 * 60))
                 .andReturn();
 
         verify(memberService, times(1)).login(any(LoginRequest.class));
@@ -186,5 +203,90 @@ class MemberControllerTest {
         // Verify secure is false (for development)
         assertFalse(result.getResponse().getCookie("token").getSecure());
     }
-}
 
+    @Test
+    void login_ShouldSetRefreshTokenCookie() throws Exception {
+        // Given
+        when(memberService.login(any(LoginRequest.class))).thenReturn(loginResponse);
+
+        // When & Then
+        mockMvc.perform(post("/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.refreshToken").value("refresh.token.here"))
+                .andExpect(cookie().value("refresh_token", "refresh.token.here"))
+                .andExpect(cookie().httpOnly("refresh_token", true))
+                .andExpect(cookie().maxAge("refresh_token", 14 * 24 * 60 * 60));
+    }
+
+    @Test
+    void refresh_WithRefreshCookie_ShouldReturnNewTokens() throws Exception {
+        // Given
+        when(memberService.refresh("old.refresh")).thenReturn(loginResponse);
+
+        // When & Then
+        mockMvc.perform(post("/refresh")
+                .cookie(new Cookie("refresh_token", "old.refresh")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.token").value("jwt.token.here"))
+                .andExpect(cookie().value("token", "jwt.token.here"))
+                .andExpect(cookie().value("refresh_token", "refresh.token.here"));
+
+        verify(memberService, times(1)).refresh("old.refresh");
+    }
+
+    @Test
+    void refresh_WithTokenInBody_ShouldPreferBody() throws Exception {
+        // Given
+        when(memberService.refresh("body.refresh")).thenReturn(loginResponse);
+
+        // When & Then
+        mockMvc.perform(post("/refresh")
+                .cookie(new Cookie("refresh_token", "cookie.refresh"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"body.refresh\"}"))
+                .andExpect(status().isOk());
+
+        verify(memberService, times(1)).refresh("body.refresh");
+    }
+
+    @Test
+    void logout_ShouldRevokeTokensAndClearBothCookies() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/logout")
+                .header("Authorization", "Bearer access.token")
+                .cookie(new Cookie("refresh_token", "refresh.token")))
+                .andExpect(status().isOk())
+                .andExpect(cookie().maxAge("token", 0))
+                .andExpect(cookie().maxAge("refresh_token", 0));
+
+        verify(memberService, times(1)).logout("access.token", "refresh.token");
+    }
+
+    @Test
+    void logout_WithRefreshTokenInBody_ShouldRevokeIt() throws Exception {
+        // When & Then - clients that keep the refresh token themselves send no cookie
+        mockMvc.perform(post("/logout")
+                .header("Authorization", "Bearer access.token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"body.refresh\"}"))
+                .andExpect(status().isOk());
+
+        verify(memberService, times(1)).logout("access.token", "body.refresh");
+    }
+
+    @Test
+    void getRevocations_ShouldReturnRevocationsSince() throws Exception {
+        // Given
+        when(tokenStore.getRevocationsSince(1000L))
+                .thenReturn(new RevocationBatch(5000L, List.of(new Revocation("jti-1", 9000L))));
+
+        // When & Then
+        mockMvc.perform(get("/internal/revocations").param("since", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.serverTime").value(5000))
+                .andExpect(jsonPath("$.data.revocations[0].jti").value("jti-1"))
+                .andExpect(jsonPath("$.data.revocations[0].expiresAt").value(9000));
+    }
+}
@@ -0,0 +1,89 @@
+package com.blibli.training.member.controller;
+
+import com.blibli.training.framework.configurations.advisor.ErrorAdvisor;
+import com.blibli.training.member.config.MemberImportProperties;
+import com.blibli.training.member.dto.MemberImportResult;
+import com.blibli.training.member.importer.MemberImporter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = MemberImportController.class,
+        excludeAutoConfiguration = {org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class})
+@Import({MemberImportProperties.class, ErrorAdvisor.class})
+@TestPropertySource(properties = {"member.import.enabled=true", "member.import.admin-token=s3cret"})
+class MemberImportControllerTest {
+
+    private static final String NDJSON = "{\"email\":\"a@example.com\",\"password\":\"password123\"}\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemberImportProperties properties;
+
+    @MockBean
+    private MemberImporter memberImporter;
+
+    @Test
+    void importMembers_WithAdminToken_ShouldImport() throws Exception {
+        // Given
+        when(memberImporter.importMembers(any(), eq(false)))
+                .thenReturn(new MemberImportResult(1, 1, 0, 0, 5, List.of()));
+
+        // When & Then
+        mockMvc.perform(post("/internal/members/import")
+                        .header("X-Admin-Token", "s3cret")
+                        .contentType("application/x-ndjson")
+                        .content(NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(1));
+    }
+
+    @Test
+    void importMembers_WithoutOrWithWrongAdminToken_ShouldRejectBeforeReadingBody() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/internal/members/import")
+                        .contentType("application/x-ndjson")
+                        .content(NDJSON))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/internal/members/import")
+                        .header("X-Admin-Token", "guess")
+                        .contentType("application/x-ndjson")
+                        .content(NDJSON))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(memberImporter);
+    }
+
+    @Test
+    void importMembers_WhenNoAdminTokenIsConfigured_ShouldRejectEveryRequest() throws Exception {
+        // Given
+        String configured = properties.getAdminToken();
+        properties.setAdminToken("");
+
+        // When & Then
+        try {
+            mockMvc.perform(post("/internal/members/import")
+                            .header("X-Admin-Token", "")
+                            .contentType("application/x-ndjson")
+                            .content(NDJSON))
+                    .andExpect(status().isUnauthorized());
+        } finally {
+            properties.setAdminToken(configured);
+        }
+
+        verifyNoInteractions(memberImporter);
+    }
+}
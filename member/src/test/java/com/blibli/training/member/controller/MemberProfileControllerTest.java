@@ -0,0 +1,70 @@
+package com.blibli.training.member.controller;
+
+import com.blibli.training.member.dto.MemberProfile;
+import com.blibli.training.member.service.MemberProfileService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = MemberProfileController.class,
+        excludeAutoConfiguration = {org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class})
+class MemberProfileControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MemberProfileService memberProfileService;
+
+    @Test
+    void getMember_ShouldReturnProfileWithoutPassword() throws Exception {
+        // Given
+        when(memberProfileService.getProfile(1L)).thenReturn(new MemberProfile(1L, "test@example.com"));
+
+        // When & Then
+        mockMvc.perform(get("/internal/members/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(1))
+                .andExpect(jsonPath("$.data.email").value("test@example.com"))
+                .andExpect(jsonPath("$.data.password").doesNotExist());
+    }
+
+    @Test
+    void getMember_WhenNotFound_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(memberProfileService.getProfile(99L)).thenThrow(new RuntimeException("Member not found"));
+
+        // When & Then
+        mockMvc.perform(get("/internal/members/99"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Member not found"));
+    }
+
+    @Test
+    void batchGet_ShouldReturnProfiles() throws Exception {
+        // Given
+        when(memberProfileService.getProfiles(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new MemberProfile(1L, "a@example.com"),
+                new MemberProfile(3L, "c@example.com")));
+
+        // When & Then
+        mockMvc.perform(post("/internal/members/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[1].email").value("c@example.com"));
+
+        verify(memberProfileService, times(1)).getProfiles(List.of(1L, 2L, 3L));
+    }
+}
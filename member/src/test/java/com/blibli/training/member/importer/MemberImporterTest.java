@@ -0,0 +1,121 @@
+package com.blibli.training.member.importer;
+
+import com.blibli.training.member.config.MemberImportProperties;
+import com.blibli.training.member.dto.MemberImportResult;
+import com.blibli.training.member.security.KnownEmailFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberImporterTest {
+
+    private static final String PRE_HASHED = new BCryptPasswordEncoder(4).encode("secret");
+
+    @Mock
+    private MemberBatchWriter batchWriter;
+
+    @Mock
+    private KnownEmailFilter knownEmailFilter;
+
+    private MemberImportProperties properties;
+    private MemberImporter memberImporter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MemberImportProperties();
+        memberImporter = new MemberImporter(batchWriter, knownEmailFilter, properties, new ObjectMapper());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importMembers_ShouldHashPasswordsAndInsertInChunks() throws Exception {
+        // Given
+        properties.setChunkSize(2);
+        when(batchWriter.insert(anyList(), anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).size());
+        String ndjson = """
+                {"email":"a@example.com","password":"password123"}
+                {"email":"b@example.com","passwordHash":"%s"}
+
+                {"email":"c@example.com","password":"password123"}
+                """.formatted(PRE_HASHED);
+
+        // When
+        MemberImportResult result = memberImporter.importMembers(stream(ndjson), false);
+
+        // Then
+        ArgumentCaptor<List<String>> emails = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<String>> hashes = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter, times(2)).insert(emails.capture(), hashes.capture());
+        assertEquals(List.of("a@example.com", "b@example.com"), emails.getAllValues().get(0));
+        assertEquals(List.of("c@example.com"), emails.getAllValues().get(1));
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        assertTrue(bcrypt.matches("password123", hashes.getAllValues().get(0).get(0)));
+        assertEquals(PRE_HASHED, hashes.getAllValues().get(0).get(1));
+        assertNotEquals(hashes.getAllValues().get(0).get(0), hashes.getAllValues().get(1).get(0));
+
+        assertEquals(3, result.getReceived());
+        assertEquals(3, result.getImported());
+        verify(knownEmailFilter, times(3)).add(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importMembers_WithSharedHashes_ShouldHashEachPasswordOnce() throws Exception {
+        // Given
+        when(batchWriter.insert(anyList(), anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).size());
+        String ndjson = """
+                {"email":"a@example.com","password":"password123"}
+                {"email":"b@example.com","password":"password123"}
+                """;
+
+        // When
+        memberImporter.importMembers(stream(ndjson), true);
+
+        // Then
+        ArgumentCaptor<List<String>> hashes = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter).insert(anyList(), hashes.capture());
+        assertEquals(hashes.getValue().get(0), hashes.getValue().get(1));
+    }
+
+    @Test
+    void importMembers_ShouldCountDuplicatesAndRejectInvalidLines() throws Exception {
+        // Given
+        when(batchWriter.insert(anyList(), anyList())).thenReturn(0);
+        String ndjson = """
+                {"email":"existing@example.com","passwordHash":"%s"}
+                not json
+                {"email":"no-password@example.com"}
+                {"email":"bad-hash@example.com","passwordHash":"plaintext"}
+                """.formatted(PRE_HASHED);
+
+        // When
+        MemberImportResult result = memberImporter.importMembers(stream(ndjson), false);
+
+        // Then
+        assertEquals(4, result.getReceived());
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(3, result.getRejected());
+        assertEquals(List.of("line 2: invalid JSON", "line 3: missing password",
+                "line 4: passwordHash is not a bcrypt hash"), result.getErrors());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
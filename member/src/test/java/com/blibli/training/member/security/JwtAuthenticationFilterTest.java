@@ -0,0 +1,147 @@
+package com.blibli.training.member.security;
+
+import com.blibli.training.framework.security.JwtUtils;
+import com.blibli.training.member.config.MemberSecurityProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private RevokedTokenIndex revokedTokenIndex;
+
+    @Mock
+    private FilterChain chain;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtUtils, revokedTokenIndex, new MemberSecurityProperties(),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_WithValidBearerToken_ShouldAuthenticateUser() throws Exception {
+        // Given
+        stubClaims("valid.token", "jti-1");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer valid.token");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("1", authentication.getPrincipal());
+        assertEquals("test@example.com", authentication.getDetails());
+        verify(chain, times(1)).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_WithRepeatedToken_ShouldVerifySignatureOnce() throws Exception {
+        // Given
+        stubClaims("valid.token", "jti-1");
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setCookies(new Cookie("token", "valid.token"));
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            SecurityContextHolder.clearContext();
+        }
+
+        // Then
+        verify(jwtUtils, times(1)).getClaimFromToken(eq("valid.token"), any());
+        verify(revokedTokenIndex, times(3)).isRevoked("jti-1");
+    }
+
+    @Test
+    void doFilter_WithRevokedCachedToken_ShouldNotAuthenticate() throws Exception {
+        // Given
+        stubClaims("valid.token", "jti-1");
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        first.addHeader(HttpHeaders.AUTHORIZATION, "Bearer valid.token");
+        filter.doFilter(first, new MockHttpServletResponse(), chain);
+        SecurityContextHolder.clearContext();
+        when(revokedTokenIndex.isRevoked("jti-1")).thenReturn(true);
+
+        // When
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        second.addHeader(HttpHeaders.AUTHORIZATION, "Bearer valid.token");
+        filter.doFilter(second, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(chain, times(2)).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_WithInvalidToken_ShouldContinueUnauthenticated() throws Exception {
+        // Given
+        when(jwtUtils.getClaimFromToken(eq("expired.token"), any()))
+                .thenThrow(new ExpiredJwtException(null, null, "expired"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer expired.token");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(chain, times(1)).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_WithoutToken_ShouldNotTouchJwtUtils() throws Exception {
+        // When
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+
+        // Then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(jwtUtils, revokedTokenIndex);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubClaims(String token, String jti) {
+        Claims claims = mock(Claims.class);
+        when(claims.get("userId")).thenReturn(1);
+        when(claims.getSubject()).thenReturn("test@example.com");
+        when(claims.getId()).thenReturn(jti);
+        when(claims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 60_000));
+        when(jwtUtils.getClaimFromToken(eq(token), any(Function.class)))
+                .thenAnswer(invocation -> invocation.<Function<Claims, Object>>getArgument(1).apply(claims));
+    }
+}
@@ -0,0 +1,168 @@
+package com.blibli.training.member.security;
+
+import com.blibli.training.member.config.LoginProperties;
+import com.blibli.training.member.repository.MemberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KnownEmailFilterTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LoginProperties properties;
+    private MeterRegistry meterRegistry;
+    private KnownEmailFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoginProperties();
+        properties.getEmailFilter().setExpectedEmails(10_000);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new KnownEmailFilter(memberRepository, transactionManager, properties, meterRegistry);
+    }
+
+    @Test
+    void mightContain_BeforeFirstBuild_ShouldAllowEveryEmail() {
+        // When & Then
+        assertTrue(filter.mightContain("anyone@example.com"));
+        assertEquals(0, meterRegistry.get("member.login.email.filter").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void rebuild_ShouldKnowEveryStoredEmailAndRejectMostOthers() {
+        // Given
+        when(memberRepository.count()).thenReturn(5_000L);
+        when(memberRepository.streamAllEmails())
+                .thenReturn(IntStream.range(0, 5_000).mapToObj(i -> "member" + i + "@example.com"));
+
+        // When
+        filter.rebuild();
+
+        // Then
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(filter.mightContain("member" + i + "@example.com"));
+        }
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain("stranger" + i + "@example.com"))
+                .count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() > 0 && filter.expectedFalsePositiveRate() < 0.03);
+        assertEquals(10_000 - falsePositives,
+                meterRegistry.get("member.login.email.filter").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void add_AfterBuild_ShouldMakeEmailKnown() {
+        // Given
+        when(memberRepository.count()).thenReturn(0L);
+        when(memberRepository.streamAllEmails()).thenReturn(Stream.empty());
+        filter.rebuild();
+        assertFalse(filter.mightContain("new@example.com"));
+
+        // When
+        filter.add("new@example.com");
+
+        // Then
+        assertTrue(filter.mightContain("new@example.com"));
+    }
+
+    @Test
+    void add_DuringRebuild_ShouldSurviveSwap() {
+        // Given
+        when(memberRepository.count()).thenReturn(1L);
+        when(memberRepository.streamAllEmails()).thenAnswer(invocation -> {
+            // A registration commits while the rebuild is reading the table
+            filter.add("during@example.com");
+            return Stream.of("old@example.com");
+        });
+
+        // When
+        filter.rebuild();
+
+        // Then
+        assertTrue(filter.mightContain("old@example.com"));
+        assertTrue(filter.mightContain("during@example.com"));
+    }
+
+    @Test
+    void mightContain_UnknownEmailWithoutRejectUnknown_ShouldLeaveItToDatabase() {
+        // Given - e.g. registered on another instance after the last catch-up
+        properties.getEmailFilter().setRejectUnknown(false);
+        when(memberRepository.count()).thenReturn(1L);
+        when(memberRepository.streamAllEmails()).thenReturn(Stream.of("old@example.com"));
+        filter.rebuild();
+
+        // When
+        boolean allowed = filter.mightContain("elsewhere@example.com");
+        filter.recordFalsePositive("elsewhere@example.com");
+
+        // Then
+        assertTrue(allowed);
+        assertEquals(1, meterRegistry.get("member.login.email.filter").tag("result", "unverified").counter().count());
+        assertEquals(0, meterRegistry.get("member.login.email.filter").tag("result", "rejected").counter().count());
+        assertEquals(0, meterRegistry.get("member.login.email.filter").tag("result", "false_positive").counter().count());
+    }
+
+    @Test
+    void catchUp_AfterRebuild_ShouldAddEmailsRegisteredOnOtherInstances() {
+        // Given
+        when(memberRepository.count()).thenReturn(1L);
+        when(memberRepository.streamAllEmails()).thenReturn(Stream.of("old@example.com"));
+        Instant beforeRebuild = Instant.now();
+        filter.rebuild();
+        when(memberRepository.findEmailsRegisteredSince(any())).thenReturn(List.of("elsewhere@example.com"));
+        assertFalse(filter.mightContain("elsewhere@example.com"));
+
+        // When
+        filter.catchUp();
+
+        // Then - read from before the rebuild started, minus the overlap for late commits
+        assertTrue(filter.mightContain("elsewhere@example.com"));
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        verify(memberRepository).findEmailsRegisteredSince(since.capture());
+        assertTrue(since.getValue().isBefore(beforeRebuild.minusSeconds(29)));
+    }
+
+    @Test
+    void catchUp_BeforeFirstBuild_ShouldNotQueryDatabase() {
+        // When
+        filter.catchUp();
+
+        // Then
+        verifyNoInteractions(memberRepository);
+    }
+
+    @Test
+    void rebuild_WhenDisabled_ShouldNotQueryDatabase() {
+        // Given
+        properties.getEmailFilter().setEnabled(false);
+
+        // When
+        filter.rebuild();
+
+        // Then
+        verifyNoInteractions(memberRepository);
+        assertTrue(filter.mightContain("anyone@example.com"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.blibli.training.member.security;
+
+import com.blibli.training.framework.exception.ServiceUnavailableException;
+import com.blibli.training.member.config.PasswordHashingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffloadingPasswordEncoderTest {
+
+    private PasswordHashingProperties properties;
+    private MeterRegistry meterRegistry;
+    private OffloadingPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PasswordHashingProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.close();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_ShouldDelegateAndRecordMetrics() {
+        // Given
+        encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), properties, meterRegistry);
+
+        // When
+        String hash = encoder.encode("password123");
+
+        // Then
+        assertTrue(encoder.matches("password123", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("member.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("member.password.hash").tag("operation", "matches").timer().count());
+        assertEquals(3, meterRegistry.get("member.password.queue.wait").timer().count());
+    }
+
+    @Test
+    void encode_WhenQueueIsFull_ShouldRejectWithServiceUnavailable() throws Exception {
+        // Given - one busy thread and one queued hash fill the pool
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        properties.setRetryAfterSeconds(3);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new OffloadingPasswordEncoder(new BlockingEncoder(started, release), properties, meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitForQueueDepth(1);
+
+        // When
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> encoder.encode("c"));
+
+        // Then
+        assertEquals(3, exception.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("member.password.rejected").counter().count());
+        release.countDown();
+        assertEquals("hashed-a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed-b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void encode_WhenDelegateFails_ShouldRethrowOriginalException() {
+        // Given
+        PasswordEncoder failing = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new IllegalArgumentException("rawPassword cannot be null");
+            }
+        };
+        encoder = new OffloadingPasswordEncoder(failing, properties, meterRegistry);
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> encoder.encode(null));
+        assertEquals("rawPassword cannot be null", exception.getMessage());
+    }
+
+    @Test
+    void encode_WhenWaitingThreadIsInterrupted_ShouldRestoreFlagAndRejectWithServiceUnavailable() throws Exception {
+        // Given
+        properties.setRetryAfterSeconds(3);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new OffloadingPasswordEncoder(new BlockingEncoder(started, release), properties, meterRegistry);
+        CompletableFuture<Object> outcome = new CompletableFuture<>();
+        Thread caller = new Thread(() -> {
+            try {
+                encoder.encode("a");
+                outcome.complete("completed");
+            } catch (RuntimeException e) {
+                outcome.complete(Thread.currentThread().isInterrupted() ? e : "flag cleared");
+            }
+        });
+        caller.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        caller.interrupt();
+
+        // Then
+        ServiceUnavailableException exception = assertInstanceOf(ServiceUnavailableException.class,
+                outcome.get(5, TimeUnit.SECONDS));
+        assertEquals(3, exception.getRetryAfterSeconds());
+        release.countDown();
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("member.password.queue.depth").gauge().value() < depth) {
+            assertTrue(System.currentTimeMillis() < deadline, "hash was never queued");
+            Thread.sleep(5);
+        }
+    }
+
+    private static class BlockingEncoder implements PasswordEncoder {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        private BlockingEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed-" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
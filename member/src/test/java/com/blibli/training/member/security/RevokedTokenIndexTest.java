@@ -0,0 +1,62 @@
+package com.blibli.training.member.security;
+
+import com.blibli.training.member.config.MemberSecurityProperties;
+import com.blibli.training.member.dto.Revocation;
+import com.blibli.training.member.dto.RevocationBatch;
+import com.blibli.training.member.service.TokenStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevokedTokenIndexTest {
+
+    @Mock
+    private TokenStore tokenStore;
+
+    private MemberSecurityProperties properties;
+    private RevokedTokenIndex revokedTokenIndex;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MemberSecurityProperties();
+        revokedTokenIndex = new RevokedTokenIndex(tokenStore, properties);
+    }
+
+    @Test
+    void refresh_ShouldLoadRevocationsAndContinueFromServerTime() {
+        // Given
+        properties.setJwtFilterEnabled(true);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        when(tokenStore.getRevocationsSince(anyLong()))
+                .thenReturn(new RevocationBatch(100_000L, List.of(new Revocation("jti-1", expiresAt))));
+
+        // When
+        revokedTokenIndex.refresh();
+        revokedTokenIndex.refresh();
+
+        // Then
+        assertTrue(revokedTokenIndex.isRevoked("jti-1"));
+        assertFalse(revokedTokenIndex.isRevoked("jti-2"));
+        verify(tokenStore).getRevocationsSince(0L);
+        verify(tokenStore).getRevocationsSince(70_000L);
+    }
+
+    @Test
+    void refresh_WhenFilterDisabled_ShouldNotQuery() {
+        // When
+        revokedTokenIndex.refresh();
+
+        // Then
+        verifyNoInteractions(tokenStore);
+        assertFalse(revokedTokenIndex.isRevoked("jti-1"));
+    }
+}
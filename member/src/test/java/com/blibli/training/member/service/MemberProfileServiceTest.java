@@ -0,0 +1,102 @@
+package com.blibli.training.member.service;
+
+import com.blibli.training.member.config.MemberProfileProperties;
+import com.blibli.training.member.dto.MemberProfile;
+import com.blibli.training.member.repository.MemberRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberProfileServiceTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    private MemberProfileProperties properties;
+    private MemberProfileService memberProfileService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MemberProfileProperties();
+        memberProfileService = new MemberProfileService(memberRepository, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getProfiles_ShouldLoadAllIdsWithOneQueryInRequestOrder() {
+        // Given
+        when(memberRepository.findProfilesByIdIn(List.of(3L, 1L, 2L))).thenReturn(List.of(
+                new MemberProfile(1L, "a@example.com"),
+                new MemberProfile(3L, "c@example.com")));
+
+        // When
+        List<MemberProfile> result = memberProfileService.getProfiles(Arrays.asList(3L, 1L, 3L, null, 2L));
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(3L, result.get(0).getId());
+        assertEquals(1L, result.get(1).getId());
+        verify(memberRepository, times(1)).findProfilesByIdIn(anyCollection());
+    }
+
+    @Test
+    void getProfiles_ShouldOnlyQueryCacheMisses() {
+        // Given
+        when(memberRepository.findProfilesByIdIn(List.of(1L))).thenReturn(List.of(new MemberProfile(1L, "a@example.com")));
+        when(memberRepository.findProfilesByIdIn(List.of(2L))).thenReturn(List.of(new MemberProfile(2L, "b@example.com")));
+        memberProfileService.getProfiles(List.of(1L));
+
+        // When
+        List<MemberProfile> result = memberProfileService.getProfiles(List.of(1L, 2L));
+
+        // Then
+        assertEquals(2, result.size());
+        verify(memberRepository, times(1)).findProfilesByIdIn(List.of(1L));
+        verify(memberRepository, times(1)).findProfilesByIdIn(List.of(2L));
+    }
+
+    @Test
+    void getProfiles_WhenCacheExpired_ShouldReload() {
+        // Given
+        properties.setCacheTtl(Duration.ZERO);
+        when(memberRepository.findProfilesByIdIn(List.of(1L))).thenReturn(List.of(new MemberProfile(1L, "a@example.com")));
+
+        // When
+        memberProfileService.getProfiles(List.of(1L));
+        memberProfileService.getProfiles(List.of(1L));
+
+        // Then
+        verify(memberRepository, times(2)).findProfilesByIdIn(List.of(1L));
+    }
+
+    @Test
+    void getProfiles_WithTooManyIds_ShouldThrowRuntimeException() {
+        // Given
+        properties.setMaxBatchSize(2);
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> memberProfileService.getProfiles(List.of(1L, 2L, 3L)));
+        verifyNoInteractions(memberRepository);
+    }
+
+    @Test
+    void getProfile_WhenNotFound_ShouldThrowRuntimeException() {
+        // Given
+        when(memberRepository.findProfilesByIdIn(List.of(99L))).thenReturn(List.of());
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> memberProfileService.getProfile(99L));
+        assertEquals("Member not found", exception.getMessage());
+    }
+}
@@ -0,0 +1,129 @@
+package com.blibli.training.member.service;
+
+import com.blibli.training.framework.security.JwtUtils;
+import com.blibli.training.member.config.LoginProperties;
+import com.blibli.training.member.config.TokenProperties;
+import com.blibli.training.member.dto.RegisterRequest;
+import com.blibli.training.member.repository.MemberRepository;
+import com.blibli.training.member.security.KnownEmailFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({MemberService.class, KnownEmailFilter.class, MemberCredentialCache.class, LoginProperties.class,
+        TokenStore.class, TokenProperties.class,
+        MemberServiceConcurrencyTest.TestBeans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+class MemberServiceConcurrencyTest {
+
+    private static final int REGISTRATIONS = 16;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @MockBean
+    private JwtUtils jwtUtils;
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    void register_WithConcurrentSameEmail_ShouldCreateExactlyOneMember() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(REGISTRATIONS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> registrations = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            registrations.add(executor.submit(() -> {
+                start.await();
+                return memberService.register(request("race@example.com"));
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        int duplicates = 0;
+        for (Future<?> registration : registrations) {
+            try {
+                registration.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertEquals("Email already exists", e.getCause().getMessage());
+                duplicates++;
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, succeeded);
+        assertEquals(REGISTRATIONS - 1, duplicates);
+        assertEquals(1, memberRepository.count());
+    }
+
+    @Test
+    void register_WithExistingEmail_ShouldKeepOriginalMember() {
+        // Given
+        Long originalId = memberService.register(request("taken@example.com")).getId();
+
+        // When
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> memberService.register(request("taken@example.com")));
+
+        // Then
+        assertEquals("Email already exists", exception.getMessage());
+        assertEquals(originalId, memberRepository.findByEmail("taken@example.com").orElseThrow().getId());
+    }
+
+    private static RegisterRequest request(String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(email);
+        request.setPassword("password123");
+        return request;
+    }
+
+    @TestConfiguration
+    static class TestBeans {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -2,21 +2,34 @@ package com.blibli.training.member.service;
 
 import com.blibli.training.framework.exception.AuthenticationException;
 import com.blibli.training.framework.security.JwtUtils;
+import com.blibli.training.member.config.LoginProperties;
 import com.blibli.training.member.dto.LoginRequest;
 import com.blibli.training.member.dto.LoginResponse;
 import com.blibli.training.member.dto.RegisterRequest;
 import com.blibli.training.member.entity.Member;
+import com.blibli.training.member.entity.RefreshToken;
 import com.blibli.training.member.repository.MemberRepository;
+import com.blibli.training.member.security.KnownEmailFilter;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.function.Function;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +47,15 @@ class MemberServiceTest {
     @Mock
     private JwtUtils jwtUtils;
 
+    @Mock
+    private KnownEmailFilter knownEmailFilter;
+
+    @Mock
+    private MemberCredentialCache credentialCache;
+
+    @Mock
+    private TokenStore tokenStore;
+
     @InjectMocks
     private MemberService memberService;
 
@@ -56,12 +78,13 @@ class MemberServiceTest {
         loginRequest = new LoginRequest();
         loginRequest.setEmail("test@example.com");
         loginRequest.setPassword("password123");
+
+        lenient().when(knownEmailFilter.mightContain(anyString())).thenReturn(true);
     }
 
     @Test
     void register_WithNewEmail_ShouldCreateMember() {
         // Given
-        when(memberRepository.findByEmail(registerRequest.getEmail())).thenReturn(Optional.empty());
         when(passwordEncoder.encode(registerRequest.getPassword())).thenReturn("$2a$10$encodedPassword");
         when(memberRepository.save(any(Member.class))).thenReturn(testMember);
 
@@ -70,7 +93,8 @@ class MemberServiceTest {
 
         // Then
         assertNotNull(result);
-        verify(memberRepository, times(1)).findByEmail(registerRequest.getEmail());
+        verify(memberRepository, never()).findByEmail(anyString());
+        verify(knownEmailFilter, times(1)).add(testMember.getEmail());
         verify(passwordEncoder, times(1)).encode(registerRequest.getPassword());
         verify(memberRepository, times(1)).save(any(Member.class));
     }
@@ -78,15 +102,29 @@ class MemberServiceTest {
     @Test
     void register_WithExistingEmail_ShouldThrowException() {
         // Given
-        when(memberRepository.findByEmail(registerRequest.getEmail())).thenReturn(Optional.of(testMember));
+        when(passwordEncoder.encode(registerRequest.getPassword())).thenReturn("$2a$10$encodedPassword");
+        when(memberRepository.save(any(Member.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate key", new SQLException(), Member.EMAIL_INDEX)));
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> memberService.register(registerRequest));
         assertEquals("Email already exists", exception.getMessage());
-        verify(memberRepository, times(1)).findByEmail(registerRequest.getEmail());
-        verify(passwordEncoder, never()).encode(anyString());
-        verify(memberRepository, never()).save(any(Member.class));
+        verify(memberRepository, never()).findByEmail(anyString());
+        verify(memberRepository, times(1)).save(any(Member.class));
+    }
+
+    @Test
+    void register_WithOtherConstraintViolation_ShouldRethrow() {
+        // Given
+        when(passwordEncoder.encode(registerRequest.getPassword())).thenReturn("$2a$10$encodedPassword");
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("null value", new SQLException(), "members_password_not_null"));
+        when(memberRepository.save(any(Member.class))).thenThrow(violation);
+
+        // When & Then
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> memberService.register(registerRequest)));
     }
 
     @Test
@@ -105,7 +143,6 @@ class MemberServiceTest {
                 .password(encodedPassword)
                 .build();
 
-        when(memberRepository.findByEmail(request.getEmail())).thenReturn(Optional.empty());
         when(passwordEncoder.encode(rawPassword)).thenReturn(encodedPassword);
         when(memberRepository.save(any(Member.class))).thenAnswer(invocation -> {
             Member member = invocation.getArgument(0);
@@ -146,16 +183,80 @@ class MemberServiceTest {
     void login_WithInvalidEmail_ShouldThrowAuthenticationException() {
         // Given
         when(memberRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.empty());
+        when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$dummyPassword");
+        memberService.createDummyPasswordHash();
 
         // When & Then
         AuthenticationException exception = assertThrows(AuthenticationException.class,
                 () -> memberService.login(loginRequest));
         assertEquals("Invalid username or password", exception.getMessage());
         verify(memberRepository, times(1)).findByEmail(loginRequest.getEmail());
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(passwordEncoder, times(1)).matches(loginRequest.getPassword(), "$2a$10$dummyPassword");
+        verify(knownEmailFilter, times(1)).recordFalsePositive(loginRequest.getEmail());
         verify(jwtUtils, never()).generateToken(anyString(), anyMap());
     }
 
+    @Test
+    void login_WhenEmailFilterRejects_ShouldSkipDatabaseButStillHash() {
+        // Given
+        when(knownEmailFilter.mightContain(loginRequest.getEmail())).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$dummyPassword");
+        memberService.createDummyPasswordHash();
+
+        // When & Then
+        AuthenticationException exception = assertThrows(AuthenticationException.class,
+                () -> memberService.login(loginRequest));
+        assertEquals("Invalid username or password", exception.getMessage());
+        verifyNoInteractions(memberRepository, credentialCache);
+        verify(passwordEncoder, times(1)).matches(loginRequest.getPassword(), "$2a$10$dummyPassword");
+        verify(passwordEncoder, times(1)).encode(anyString());
+    }
+
+    @Test
+    void login_UnknownEmailWithShippedFilterDefaults_ShouldNotReachRepository() {
+        // Given - a real filter with the default properties, built from the members table
+        KnownEmailFilter filter = new KnownEmailFilter(memberRepository, mock(PlatformTransactionManager.class),
+                new LoginProperties(), new SimpleMeterRegistry());
+        when(memberRepository.count()).thenReturn(1L);
+        when(memberRepository.streamAllEmails()).thenReturn(Stream.of("member@example.com"));
+        filter.rebuild();
+        clearInvocations(memberRepository);
+        MemberService service = new MemberService(memberRepository, passwordEncoder, jwtUtils, filter,
+                credentialCache, tokenStore);
+
+        // When & Then
+        assertThrows(AuthenticationException.class, () -> service.login(loginRequest));
+        verifyNoInteractions(memberRepository, credentialCache);
+    }
+
+    @Test
+    void login_WhenMemberIsCached_ShouldSkipDatabase() {
+        // Given
+        when(credentialCache.get(loginRequest.getEmail())).thenReturn(testMember);
+        when(passwordEncoder.matches(loginRequest.getPassword(), testMember.getPassword())).thenReturn(true);
+        when(jwtUtils.generateToken(anyString(), anyMap())).thenReturn("jwt.token.here");
+
+        // When
+        LoginResponse result = memberService.login(loginRequest);
+
+        // Then
+        assertEquals(testMember.getId(), result.getUserId());
+        verify(memberRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void login_AfterDatabaseLookup_ShouldCacheMember() {
+        // Given
+        when(memberRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.of(testMember));
+        when(passwordEncoder.matches(loginRequest.getPassword(), testMember.getPassword())).thenReturn(true);
+
+        // When
+        memberService.login(loginRequest);
+
+        // Then
+        verify(credentialCache, times(1)).put(loginRequest.getEmail(), testMember);
+    }
+
     @Test
     void login_WithInvalidPassword_ShouldThrowAuthenticationException() {
         // Given
@@ -244,5 +345,79 @@ class MemberServiceTest {
         assertEquals(anotherMember.getId(), result2.getUserId());
         assertNotEquals(result1.getUserId(), result2.getUserId());
     }
-}
 
+    @Test
+    void login_ShouldIssueRefreshToken() {
+        // Given
+        when(memberRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.of(testMember));
+        when(passwordEncoder.matches(loginRequest.getPassword(), testMember.getPassword())).thenReturn(true);
+        when(tokenStore.issueRefreshToken(testMember.getId(), testMember.getEmail())).thenReturn("refresh.token");
+
+        // When
+        LoginResponse result = memberService.login(loginRequest);
+
+        // Then
+        assertEquals("refresh.token", result.getRefreshToken());
+    }
+
+    @Test
+    void refresh_ShouldIssueNewAccessAndRefreshTokens() {
+        // Given
+        when(tokenStore.consumeRefreshToken("old.refresh")).thenReturn(RefreshToken.builder()
+                .memberId(1L).email("test@example.com").expiresAt(Instant.now().plusSeconds(60)).build());
+        when(jwtUtils.generateToken(eq("test@example.com"), anyMap())).thenReturn("new.access");
+        when(tokenStore.issueRefreshToken(1L, "test@example.com")).thenReturn("new.refresh");
+
+        // When
+        LoginResponse result = memberService.refresh("old.refresh");
+
+        // Then
+        assertEquals("new.access", result.getToken());
+        assertEquals("new.refresh", result.getRefreshToken());
+        assertEquals(1L, result.getUserId());
+        verifyNoInteractions(memberRepository, passwordEncoder);
+    }
+
+    @Test
+    void refresh_WithInvalidToken_ShouldThrowAuthenticationException() {
+        // Given
+        when(tokenStore.consumeRefreshToken("reused")).thenThrow(new AuthenticationException("Invalid refresh token"));
+
+        // When & Then
+        assertThrows(AuthenticationException.class, () -> memberService.refresh("reused"));
+        verify(jwtUtils, never()).generateToken(anyString(), anyMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logout_ShouldRevokeAccessAndRefreshTokens() {
+        // Given
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        Claims claims = mock(Claims.class);
+        when(claims.getId()).thenReturn("jti-1");
+        when(claims.getExpiration()).thenReturn(expiration);
+        when(jwtUtils.validateToken("access")).thenReturn(true);
+        when(jwtUtils.getClaimFromToken(eq("access"), any(Function.class)))
+                .thenAnswer(invocation -> invocation.<Function<Claims, Object>>getArgument(1).apply(claims));
+
+        // When
+        memberService.logout("access", "refresh");
+
+        // Then
+        verify(tokenStore, times(1)).revokeRefreshToken("refresh");
+        verify(tokenStore, times(1)).revokeAccessToken("jti-1", expiration.toInstant());
+    }
+
+    @Test
+    void logout_WithInvalidAccessToken_ShouldOnlyRevokeRefreshToken() {
+        // Given
+        when(jwtUtils.validateToken("expired")).thenReturn(false);
+
+        // When
+        memberService.logout("expired", "refresh");
+
+        // Then
+        verify(tokenStore, times(1)).revokeRefreshToken("refresh");
+        verify(tokenStore, never()).revokeAccessToken(anyString(), any());
+    }
+}
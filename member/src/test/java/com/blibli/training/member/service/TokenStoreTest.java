@@ -0,0 +1,113 @@
+package com.blibli.training.member.service;
+
+import com.blibli.training.framework.exception.AuthenticationException;
+import com.blibli.training.member.config.TokenProperties;
+import com.blibli.training.member.dto.RevocationBatch;
+import com.blibli.training.member.entity.RefreshToken;
+import com.blibli.training.member.repository.RefreshTokenRepository;
+import com.blibli.training.member.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({TokenStore.class, TokenProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+class TokenStoreTest {
+
+    @Autowired
+    private TokenStore tokenStore;
+
+    @Autowired
+    private TokenProperties tokenProperties;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        revokedTokenRepository.deleteAll();
+        tokenProperties.setRefreshTtl(Duration.ofDays(14));
+    }
+
+    @Test
+    void consumeRefreshToken_ShouldReturnOwnerOnlyOnce() {
+        // Given
+        String token = tokenStore.issueRefreshToken(1L, "test@example.com");
+
+        // When
+        RefreshToken stored = tokenStore.consumeRefreshToken(token);
+
+        // Then
+        assertEquals(1L, stored.getMemberId());
+        assertEquals("test@example.com", stored.getEmail());
+        assertThrows(AuthenticationException.class, () -> tokenStore.consumeRefreshToken(token));
+    }
+
+    @Test
+    void issueRefreshToken_ShouldStoreOnlyHash() {
+        // When
+        String token = tokenStore.issueRefreshToken(1L, "test@example.com");
+
+        // Then
+        assertFalse(refreshTokenRepository.existsById(token));
+        assertEquals(1, refreshTokenRepository.count());
+    }
+
+    @Test
+    void consumeRefreshToken_WhenExpired_ShouldThrow() {
+        // Given
+        tokenProperties.setRefreshTtl(Duration.ofSeconds(-1));
+        String token = tokenStore.issueRefreshToken(1L, "test@example.com");
+
+        // When & Then
+        assertThrows(AuthenticationException.class, () -> tokenStore.consumeRefreshToken(token));
+    }
+
+    @Test
+    void revokeRefreshToken_ShouldPreventUse() {
+        // Given
+        String token = tokenStore.issueRefreshToken(1L, "test@example.com");
+
+        // When
+        tokenStore.revokeRefreshToken(token);
+
+        // Then
+        assertThrows(AuthenticationException.class, () -> tokenStore.consumeRefreshToken(token));
+    }
+
+    @Test
+    void getRevocationsSince_ShouldReturnUnexpiredRevocationsAfterCursor() {
+        // Given
+        long before = Instant.now().toEpochMilli();
+        tokenStore.revokeAccessToken("jti-live", Instant.now().plusSeconds(600));
+        tokenStore.revokeAccessToken("jti-expired", Instant.now().minusSeconds(1));
+
+        // When
+        RevocationBatch batch = tokenStore.getRevocationsSince(before);
+        RevocationBatch later = tokenStore.getRevocationsSince(batch.getServerTime() + 1);
+
+        // Then
+        assertEquals(1, batch.getRevocations().size());
+        assertEquals("jti-live", batch.getRevocations().get(0).getJti());
+        assertTrue(later.getRevocations().isEmpty());
+    }
+}
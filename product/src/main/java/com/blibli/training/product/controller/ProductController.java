@@ -1,6 +1,7 @@
 package com.blibli.training.product.controller;
 
 import com.blibli.training.framework.dto.BaseResponse;
+import com.blibli.training.framework.web.VersionETag;
 import com.blibli.training.product.entity.Product;
 import com.blibli.training.product.model.web.PagedProductResponse;
 import com.blibli.training.product.model.web.SearchRequest;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -29,11 +31,26 @@ public class ProductController {
         return BaseResponse.success(productService.getAllProducts());
     }
 
+    /**
+     * Answers a matching {@code If-None-Match} with 304 after reading only the product's version.
+     */
     @GetMapping("/{id}")
-    public BaseResponse<Product> getProductById(@PathVariable String id) {
+    public BaseResponse<Product> getProductById(@PathVariable String id, WebRequest request) {
+        if (VersionETag.isNotModified(request, productService.getProductETag(id))) {
+            return null;
+        }
+        // A save between the two reads only makes the next conditional GET a full one
         return BaseResponse.success(productService.getProductById(id));
     }
     
+    /**
+     * Looks up several products in one query. Unknown ids are left out of the result.
+     */
+    @PostMapping("/batch")
+    public BaseResponse<List<Product>> getProductsByIds(@RequestBody List<String> ids) {
+        return BaseResponse.success(productService.getProductsByIds(ids));
+    }
+
     @PostMapping
     public BaseResponse<Product> createProduct(@RequestBody Product product) {
         return BaseResponse.success(productService.createProduct(product));
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -22,4 +23,8 @@ public class Product {
     private String description;
     private BigDecimal price;
     private Integer stock;
+
+    // Bumped on every save; the ETag of GET /products/{id} is derived from it
+    @Version
+    private Long version;
 }
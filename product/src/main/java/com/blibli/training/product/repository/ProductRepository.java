@@ -2,8 +2,17 @@ package com.blibli.training.product.repository;
 
 import com.blibli.training.product.entity.Product;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
+
+    /**
+     * Loads only the id and version, enough to answer a conditional GET.
+     */
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'version': 1 }")
+    Optional<Product> findVersionById(String id);
 }
@@ -4,9 +4,24 @@ import com.blibli.training.product.entity.Product;
 import com.blibli.training.product.model.web.SearchRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ProductRepositoryCustom {
     List<Product> searchProducts(SearchRequest searchRequest);
     long countProducts(SearchRequest searchRequest);
+
+    /**
+     * Replaces the fields of an existing product and increments its version in one atomic update.
+     *
+     * @return the product as saved, or empty if there is none with this id
+     */
+    Optional<Product> overwrite(Product product);
+
+    /**
+     * Sets version 0 on products saved before they were versioned.
+     *
+     * @return the number of products updated
+     */
+    long initMissingVersions();
 }
 
@@ -7,13 +7,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 @RequiredArgsConstructor
@@ -92,5 +95,24 @@ public class ProductRepositoryImpl implements ProductRepositoryCustom {
 
         return mongoTemplate.count(query, Product.class);
     }
-}
 
+    @Override
+    public Optional<Product> overwrite(Product product) {
+        Query query = Query.query(Criteria.where("_id").is(product.getId()));
+        // $inc on a missing version starts it at 1, so unversioned products also get a new ETag
+        Update update = new Update()
+                .set("name", product.getName())
+                .set("description", product.getDescription())
+                .set("price", product.getPrice())
+                .set("stock", product.getStock())
+                .inc("version", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Product.class));
+    }
+
+    @Override
+    public long initMissingVersions() {
+        Query query = Query.query(Criteria.where("version").exists(false));
+        return mongoTemplate.updateMulti(query, Update.update("version", 0L), Product.class).getModifiedCount();
+    }
+}
@@ -1,14 +1,21 @@
 package com.blibli.training.product.service;
 
+import com.blibli.training.framework.exception.ConflictException;
+import com.blibli.training.framework.web.VersionETag;
 import com.blibli.training.product.entity.Product;
 import com.blibli.training.product.model.web.PagedProductResponse;
 import com.blibli.training.product.model.web.SearchRequest;
 import com.blibli.training.product.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProductService {
@@ -20,12 +27,35 @@ public class ProductService {
         return productRepository.findAll();
     }
 
+    @PostConstruct
+    void initMissingVersions() {
+        long updated = productRepository.initMissingVersions();
+        if (updated > 0) {
+            log.info("Set version 0 on {} unversioned products", updated);
+        }
+    }
+
+    /**
+     * Saves a new product, or overwrites the product with the given id and bumps its version.
+     */
     public Product createProduct(Product product) {
         // Generate custom ID if not provided
         if (product.getId() == null || product.getId().isEmpty()) {
             product.setId(idGeneratorService.generateProductId());
+        } else {
+            Optional<Product> overwritten = productRepository.overwrite(product);
+            if (overwritten.isPresent()) {
+                return overwritten.get();
+            }
+        }
+        // An insert; a client-sent version would turn it into a versioned update
+        product.setVersion(null);
+        try {
+            return productRepository.save(product);
+        } catch (DuplicateKeyException e) {
+            // Created by a concurrent request since the overwrite found nothing
+            throw new ConflictException("Product " + product.getId() + " already exists");
         }
-        return productRepository.save(product);
     }
 
     public Product getProductById(String id) {
@@ -33,6 +63,22 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
+    /**
+     * @return the current ETag of the product, or null if it does not exist
+     */
+    public String getProductETag(String id) {
+        return productRepository.findVersionById(id)
+                .map(product -> VersionETag.of("product", product.getId(), product.getVersion()))
+                .orElse(null);
+    }
+
+    public List<Product> getProductsByIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return productRepository.findAllById(ids.stream().distinct().toList());
+    }
+
     public PagedProductResponse searchProducts(SearchRequest searchRequest) {
         List<Product> products = productRepository.searchProducts(searchRequest);
         long totalElements = productRepository.countProducts(searchRequest);
@@ -1,5 +1,6 @@
 package com.blibli.training.product.controller;
 
+import com.blibli.training.framework.exception.ConflictException;
 import com.blibli.training.product.entity.Product;
 import com.blibli.training.product.model.web.PagedProductResponse;
 import com.blibli.training.product.model.web.SearchRequest;
@@ -110,6 +111,53 @@ class ProductControllerTest {
         verify(productService, times(1)).getProductById(productId);
     }
 
+    @Test
+    void getProductById_ShouldReturnETag() throws Exception {
+        // Given
+        String productId = "MTA-000001";
+        when(productService.getProductETag(productId)).thenReturn("\"product-MTA-000001-3\"");
+        when(productService.getProductById(productId)).thenReturn(testProduct);
+
+        // When & Then
+        mockMvc.perform(get("/products/{id}", productId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"product-MTA-000001-3\""))
+                .andExpect(jsonPath("$.data.id").value(productId));
+    }
+
+    @Test
+    void getProductById_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutLoading() throws Exception {
+        // Given
+        String productId = "MTA-000001";
+        when(productService.getProductETag(productId)).thenReturn("\"product-MTA-000001-3\"");
+
+        // When & Then
+        mockMvc.perform(get("/products/{id}", productId).header("If-None-Match", "\"product-MTA-000001-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(productService, never()).getProductById(productId);
+    }
+
+    @Test
+    void getProductsByIds_ShouldReturnProductsInOneCall() throws Exception {
+        // Given
+        List<String> ids = Arrays.asList("MTA-000001", "MTA-000002", "MTA-999999");
+        when(productService.getProductsByIds(ids)).thenReturn(testProducts);
+
+        // When & Then
+        mockMvc.perform(post("/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].id").value("MTA-000001"))
+                .andExpect(jsonPath("$.data[1].stock").value(5));
+
+        verify(productService, times(1)).getProductsByIds(ids);
+    }
+
     @Test
     void getProductById_WhenNotFound_ShouldThrowException() throws Exception {
         // Given
@@ -223,6 +271,20 @@ class ProductControllerTest {
         verify(productService, times(1)).searchProducts(any(SearchRequest.class));
     }
 
+    @Test
+    void createProduct_WithDuplicateId_ShouldReturnConflict() throws Exception {
+        // Given
+        when(productService.createProduct(any(Product.class)))
+                .thenThrow(new ConflictException("Product MTA-000001 already exists"));
+
+        // When & Then
+        mockMvc.perform(post("/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testProduct)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Product MTA-000001 already exists"));
+    }
+
     @Test
     void createProduct_WithInvalidData_ShouldHandleError() throws Exception {
         // Given
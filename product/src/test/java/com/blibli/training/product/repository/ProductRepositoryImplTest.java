@@ -0,0 +1,71 @@
+package com.blibli.training.product.repository;
+
+import com.blibli.training.product.entity.Product;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductRepositoryImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private ProductRepositoryImpl productRepository;
+
+    @Test
+    void overwrite_ShouldReplaceFieldsAndIncrementVersionInOneUpdate() {
+        // Given
+        Product product = Product.builder()
+                .id("MTA-000001")
+                .name("Renamed")
+                .price(new BigDecimal("120.00"))
+                .stock(7)
+                .version(99L)
+                .build();
+        Product saved = Product.builder().id("MTA-000001").name("Renamed").version(4L).build();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(mongoTemplate.findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(Product.class))).thenReturn(saved);
+
+        // When
+        Optional<Product> result = productRepository.overwrite(product);
+
+        // Then
+        assertEquals(Optional.of(saved), result);
+        assertEquals("MTA-000001", query.getValue().getQueryObject().get("_id"));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals("Renamed", set.get("name"));
+        assertTrue(set.containsKey("description"));
+        assertFalse(set.containsKey("version"), "a client-sent version must not be written");
+        assertEquals(new Document("version", 1), update.getValue().getUpdateObject().get("$inc"));
+    }
+
+    @Test
+    void overwrite_WhenProductDoesNotExist_ShouldReturnEmpty() {
+        // Given
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Product.class))).thenReturn(null);
+
+        // When & Then
+        assertTrue(productRepository.overwrite(Product.builder().id("NEW-001").build()).isEmpty());
+    }
+}
@@ -1,5 +1,6 @@
 package com.blibli.training.product.service;
 
+import com.blibli.training.framework.exception.ConflictException;
 import com.blibli.training.product.entity.Product;
 import com.blibli.training.product.model.web.PagedProductResponse;
 import com.blibli.training.product.model.web.SearchRequest;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -85,6 +87,29 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findAll();
     }
 
+    @Test
+    void getProductsByIds_ShouldQueryDistinctIdsOnce() {
+        // Given
+        when(productRepository.findAllById(List.of("MTA-000001", "MTA-000002"))).thenReturn(testProducts);
+
+        // When
+        List<Product> result = productService.getProductsByIds(List.of("MTA-000001", "MTA-000002", "MTA-000001"));
+
+        // Then
+        assertEquals(testProducts, result);
+        verify(productRepository, times(1)).findAllById(List.of("MTA-000001", "MTA-000002"));
+    }
+
+    @Test
+    void getProductsByIds_WithNoIds_ShouldNotQuery() {
+        // When
+        List<Product> result = productService.getProductsByIds(List.of());
+
+        // Then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     void createProduct_WhenIdIsNull_ShouldGenerateIdAndSave() {
         // Given
@@ -154,6 +179,49 @@ class ProductServiceTest {
         verify(productRepository, times(1)).save(newProduct);
     }
 
+    @Test
+    void createProduct_WhenIdExists_ShouldOverwriteWithNewETag() {
+        // Given
+        Product stored = Product.builder().id("MTA-000001").version(3L).build();
+        Product overwritten = Product.builder().id("MTA-000001").name("Renamed").version(4L).build();
+        when(productRepository.findVersionById("MTA-000001"))
+                .thenReturn(Optional.of(stored), Optional.of(overwritten));
+        when(productRepository.overwrite(testProduct)).thenReturn(Optional.of(overwritten));
+        String before = productService.getProductETag("MTA-000001");
+
+        // When
+        Product result = productService.createProduct(testProduct);
+
+        // Then
+        assertEquals(overwritten, result);
+        assertNotEquals(before, productService.getProductETag("MTA-000001"));
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    void createProduct_WhenSameIdIsCreatedConcurrently_ShouldThrowConflict() {
+        // Given
+        when(productRepository.overwrite(testProduct)).thenReturn(Optional.empty());
+        when(productRepository.save(testProduct)).thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        // When & Then
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> productService.createProduct(testProduct));
+        assertEquals("Product MTA-000001 already exists", exception.getMessage());
+    }
+
+    @Test
+    void initMissingVersions_ShouldBackfillUnversionedProducts() {
+        // Given
+        when(productRepository.initMissingVersions()).thenReturn(2L);
+
+        // When
+        productService.initMissingVersions();
+
+        // Then
+        verify(productRepository, times(1)).initMissingVersions();
+    }
+
     @Test
     void getProductById_WhenProductExists_ShouldReturnProduct() {
         // Given
@@ -170,6 +238,29 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findById(productId);
     }
 
+    @Test
+    void getProductETag_WhenProductExists_ShouldUseVersion() {
+        // Given
+        Product versionOnly = Product.builder().id("MTA-000001").version(3L).build();
+        when(productRepository.findVersionById("MTA-000001")).thenReturn(Optional.of(versionOnly));
+
+        // When
+        String etag = productService.getProductETag("MTA-000001");
+
+        // Then
+        assertEquals("\"product-MTA-000001-3\"", etag);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void getProductETag_WhenProductDoesNotExist_ShouldReturnNull() {
+        // Given
+        when(productRepository.findVersionById("NON-EXISTENT")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertNull(productService.getProductETag("NON-EXISTENT"));
+    }
+
     @Test
     void getProductById_WhenProductDoesNotExist_ShouldThrowException() {
         // Given